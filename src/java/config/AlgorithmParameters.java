@@ -34,6 +34,37 @@ public class AlgorithmParameters
     
     public static boolean constraintHandling = true;
     
+    // when handling constraints, ants build only valid paths by never
+    // selecting a node that would leave a class without an attribute 
+    // or a method, rather than generating paths until one is valid
+    public static boolean constructiveConstraintHandling = false;
+    
+    // ants construct their paths concurrently on a pool of worker threads,
+    // the paths are still added to the colony in ant order
+    public static boolean parallelConstruction = false;
+    public static int NUMBER_OF_THREADS = Runtime.getRuntime( ).availableProcessors( );
+    
+    // the fitness of the paths is evaluated concurrently on the same 
+    // worker threads, then reduced in ant order, so results are the 
+    // same as for evaluation on one thread
+    public static boolean parallelEvaluation = false;
+    
+    // the fitness of up to this many designs, i.e. partitions of the
+    // attributes and methods into classes, is kept by fingerprint, so
+    // that designs seen again need not be evaluated; zero for none
+    public static int FITNESS_CACHE_SIZE = 0;
+    
+    // each ant counts the uses within each class, and the attributes 
+    // and methods of each class, as it constructs its path, so that 
+    // the path comes out with its fitness already set
+    public static boolean incrementalFitness = false;
+    
+    // a master seed reproduces a whole batch, whether the ants run
+    // on one thread or many. When not seeded, each controller draws
+    // its master seed from the clock
+    public static boolean seeded = false;
+    public static long MASTER_SEED = 0L;
+    
     
     private static final double DEFAULT_ALPHA = 1.5; 
     public static double ALPHA = DEFAULT_ALPHA; 
@@ -85,6 +116,65 @@ public class AlgorithmParameters
     public static double BETA_CBO = 1.0;
     public static double BETA_NAC = 1.0;
     
+    // ants choose among this many remaining nodes, or fewer, by a 
+    // linear roulette wheel scan; among more, by drawing from a tree 
+    // of upper bounds and accepting in proportion to the actual 
+    // probability, giving up after the maximum number of rejections
+    public static int ROULETTE_LINEAR_THRESHOLD = 64;
+    public static int ROULETTE_MAXIMUM_REJECTIONS = 16;
+    
+    // hold the pheromone table in floats, rather than doubles
+    public static boolean singlePrecisionPheromone = false;
+    
+    // hold the pheromone table densely, or for very large design 
+    // problems, as only those cells that differ from a common baseline,
+    // or densely in a memory mapped file that other processes can map
+    public enum PheromoneStorage { dense, sparse, mapped }
+    public static PheromoneStorage pheromoneStorage = PheromoneStorage.dense;
+    // each colony maps its table to a file of its own, named from this 
+    // one with the process and a count, e.g. "pheromone-1234-1.map", 
+    // reused for every run, and deleted on exit unless asked to keep it
+    public static String MAPPED_PHEROMONE_FILE = "pheromone.map";
+    public static boolean KEEP_MAPPED_PHEROMONE_FILES = false;
+    
+    // reduce the pheromone and alpha tables to the nodes that are not 
+    // in frozen classes, for as long as the classes stay frozen
+    public static boolean reduceFrozenClasses = false;
+    
+    // how strongly designs or paths given to the controller seed the 
+    // pheromone table at the start of a run, from zero (not at all) 
+    // to one (edges not on a seed path start at the MMAS minimum)
+    public static double WARM_START_STRENGTH = 0.5;
+    
+    // ants choose among this many of the most promising successors
+    // of the current node, from the use matrix, while any remain; 
+    // zero to always choose among every remaining node
+    public static int CANDIDATE_LIST_SIZE = 0;
+    
+    // ants make ACS style local updates to the shared pheromone table 
+    // as they move, evaporating each edge by this rate towards the MMAS
+    // pheromone minimum, on lock free atomic cells. With parallel 
+    // construction, runs are then no longer reproducible from the seed.
+    public static boolean localPheromoneUpdate = false;
+    public static double LOCAL_EVAPORATION = 0.1;
+    
+    // every so many iterations, a run is taken to have stagnated if the
+    // average lambda-branching factor of the pheromone table has fallen
+    // to the threshold, and no best so far value has improved since the
+    // last check. It then either restarts from the initial pheromone
+    // (and any warm start), or stops early.
+    public enum StagnationAction { none, restart, stop }
+    public static StagnationAction stagnationAction = StagnationAction.none;
+    public static int STAGNATION_CHECK_INTERVAL = 10;
+    public static double STAGNATION_LAMBDA = 0.05;
+    public static double STAGNATION_BRANCHING_FACTOR = 3.0;
+    
+    // for the island model, the number of colonies searching at once,
+    // and the number of iterations between exchanges of elite paths;
+    // batch searches use the island model when there is more than one
+    public static int NUMBER_OF_ISLANDS = 1;
+    public static int MIGRATION_INTERVAL = 10;
+    
 }   // end class
 
 // ------ end of file -----------------------------------------
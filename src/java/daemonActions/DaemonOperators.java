@@ -5,7 +5,6 @@
 package daemonActions;
 
 import engine.*;
-import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.SortedMap;
@@ -13,7 +12,6 @@ import problem.CLSDatum;
 import problem.ProblemController;
 import softwareDesign.CLSClass;
 import softwareDesign.EleganceDesign;
-import myUtils.Utility;
 
 
 /**
@@ -246,12 +244,8 @@ public class DaemonOperators
      * calculate fitness values for a design solution path
      * using the graph structure and the use matrix
      * 
-     * IMPORTANT: a path is made up of a list of nodes,
-     * but the number of the node is the number of the element 
-     * (attribute or method) PLUS ONE FOR THE NEST
-     * 
-     * So when indexing into the use matrix, we subtract one from
-     * the value of the number
+     * for a colony, keep a FitnessEvaluator 
+     * for each thread instead, as this makes a new one each time
      * 
      * @param path
      * @param problem controller
@@ -262,154 +256,7 @@ public class DaemonOperators
         assert path != null;
         assert problemController != null;
         
-        final int[ ][ ] useMatrix = problemController.getUseMatrix( );
-        assert useMatrix != null;
-
-        final int numberOfAttributes = problemController.getNumberOfUniqueData( );
-        assert numberOfAttributes > 0;
-        
-        final int numberOfMethods = problemController.getNumberOfUniqueActions( );
-        assert numberOfMethods > 0;
-        
-        // for calculation of CBO
-        final int numberOfUses = problemController.getNumberOfUses( );
-        assert numberOfUses > 0;
-        int internalUses = 0;
-        
-        // for calculation of NAC     
-        final int numberOfClasses = problemController.getNumberOfClasses( );
-        assert numberOfClasses > 0;
-        int[ ] elementCounts = new int[ numberOfClasses ];
-        int classCounter = 0;
-        
-        // for calculation of ATMR
-        double[ ] ratios = new double[ numberOfClasses ];
-        
-        List< Method > classMethodList = new ArrayList< >( );
-        List< Attribute > classAttributeList = new ArrayList< >( );
-        
-        // now iterate along the nodes in the solution path
-        Iterator< Node > it = path.iterator( );
-        
-        while( it.hasNext( ) )
-        {
-            Node n = it.next( );
-            
-            if( n instanceof Nest )
-            {
-                // do nothing
-            }
-            else if( n instanceof Method )
-            {
-                classMethodList.add( (Method) n );
-            }
-            else if( n instanceof Attribute )
-            {
-                classAttributeList.add( (Attribute) n );
-            }
-            else if( n instanceof EndOfClass )
-            {
-                // we have a class, so calculate fitness
-                
-                int[ ] methodNumbers = new int[ classMethodList.size( ) ];
-                int[ ] attributeNumbers = new int[ classAttributeList.size( ) ];
-                
-                int mIndex = 0;
-                int aIndex = 0;
-                
-                for( Method m : classMethodList )
-                {
-                    int number = m.getNumber( );
-                    number -= numberOfAttributes;
-                    assert number >= 0;
-                    assert number <= numberOfMethods;
-                    
-                    methodNumbers[ mIndex ] = number - 1;   // minus one for the nest
-                    mIndex++;
-                }    
-                
-                for( Attribute a : classAttributeList )
-                {
-                    int number = a.getNumber( );
-                    attributeNumbers[ aIndex ] = number - 1; // minus one for the nest
-                    aIndex++;
-                }    
-                
-                if( mIndex > 0 && aIndex > 0 ) // are there both attributes and methods?
-                {
-                    // for calculation of CBO
-                    for( int i = 0; i < methodNumbers.length; i++ )
-                    {
-                        for( int j = 0; j < attributeNumbers.length; j++ )
-                        {
-                            if( useMatrix[ methodNumbers[ i ] ][ attributeNumbers[ j ] ] == 1 )
-                            {
-                                internalUses++; // must be an internal use
-                            }
-                        }
-                    }
-                    
-                    // for calculation of ATMR
-                    ratios[ classCounter ] =
-                        (double) classAttributeList.size( ) / (double) classMethodList.size( );
-                }
-                
-                // check post-conditions for this class
-                assert classAttributeList.size( ) == attributeNumbers.length;
-                assert classMethodList.size( ) == methodNumbers.length;
-                
-                // for calculation of NAC 
-                // (doesn't matter if class lacks attributes or methods)  
-                elementCounts[ classCounter ] = 
-                    classAttributeList.size( ) + classMethodList.size( );
-                
-                classCounter++;
-                
-                // lastly, clear out the lists for next class
-                classMethodList.clear( );
-                classAttributeList.clear( );
-            }
-            else
-            {
-                assert true : "impossible node type!!";
-            }
-             
-        }   // end while there's another node in the solution path
-        
-        // establish post-conditions for the solution path
-        assert classCounter == numberOfClasses;
-        if( internalUses == numberOfUses )
-        {
-//            System.out.println( "suspect path is: ---------------------");
-//            Iterator< Node > it2 = path.iterator( );
-//            while( it2.hasNext( ) )
-//            {
-//                Node n = it2.next( );
-//                System.out.println( "\t" + n.getNumber( ) + " " + n.getName( ) );
-//            }
-        }
-        assert internalUses <= numberOfUses :
-            "internal uses is: " + internalUses +
-            ", number of uses is: " + numberOfUses;
-        
-        // calculate CBO as a minimisation function       
-        final double CBO = 1.0 - ( (double) internalUses / (double) numberOfUses );
-        assert CBO >= 0.0;
-        assert CBO <= 1.0;
-
-        path.setCBO( CBO );
-        
-        // calculate NAC
-        final double NAC = Utility.standardDeviation( elementCounts );
-        assert NAC >= 0.0;
-        
-        path.setEleganceNAC( NAC );
-        
-        // calculate ATMR
-        final double ATMR = Utility.standardDeviation( ratios );
-        assert ATMR >= 0.0;
-        
-        path.setEleganceATMR( ATMR );
+        new FitnessEvaluator( problemController ).evaluate( path );
     }
     
 }   // end class
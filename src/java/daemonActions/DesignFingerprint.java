@@ -0,0 +1,151 @@
+/*
+ * DesignFingerprint.java
+ * 18 October 2026
+ */
+
+package daemonActions;
+
+import java.util.Arrays;
+
+/**
+ * The partition of the attributes and methods of a design solution path
+ * into classes, in a canonical form that does not depend on the order of
+ * the elements within a class, nor on the order of the classes; two paths
+ * with the same fingerprint have the same fitness.
+ *
+ * Each element is labelled with the number of its class, where the
+ * classes are numbered in order of their lowest numbered element.
+ *
+ * A fingerprint is set from path after path, without allocation, and
+ * copied only to keep it, e.g. as the key of a cache.
+ *
+ * @author Christopher Simons
+ */
+
+public class DesignFingerprint
+{
+    /** canonical class of each attribute and method, by node number less one */
+    private final int[ ] labels;
+
+    /** hash code of the labels */
+    private int hash;
+
+    /** scratch, class of each element in path order, and its canonical number */
+    private final int[ ] classOf;
+    private final int[ ] canonical;
+
+    /**
+     * constructor
+     * @param number of attributes and methods
+     * @param number of classes
+     */
+    public DesignFingerprint( int numberOfElements, int numberOfClasses )
+    {
+        assert numberOfElements > 0;
+        assert numberOfClasses > 0;
+
+        labels = new int[ numberOfElements ];
+        classOf = new int[ numberOfElements ];
+        canonical = new int[ numberOfClasses ];
+        hash = 0;
+    }
+
+    /**
+     * constructor, a copy to keep, without scratch arrays
+     * @param fingerprint to copy
+     */
+    private DesignFingerprint( DesignFingerprint other )
+    {
+        labels = other.labels.clone( );
+        hash = other.hash;
+        classOf = null;
+        canonical = null;
+    }
+
+    /**
+     * set the fingerprint to that of a path
+     * @param node numbers of the path, from the nest to the last end of class
+     */
+    public void set( int[ ] nodes )
+    {
+        assert nodes != null;
+        assert classOf != null : "a kept copy can't be set";
+
+        final int numberOfElements = labels.length;
+        int classCounter = 0;
+
+        for( int k = 0; k < nodes.length; k++ )
+        {
+            final int number = nodes[ k ];
+
+            if( number == 0 )
+            {
+                // do nothing, it's the nest
+            }
+            else if( number <= numberOfElements )
+            {
+                classOf[ number - 1 ] = classCounter; // minus one for the nest
+            }
+            else
+            {
+                classCounter++; // an end of class
+            }
+        }
+
+        assert classCounter == canonical.length;
+        Arrays.fill( canonical, -1 );
+        int next = 0;
+        int h = 1;
+
+        for( int e = 0; e < numberOfElements; e++ )
+        {
+            final int c = classOf[ e ];
+
+            if( canonical[ c ] < 0 )
+            {
+                canonical[ c ] = next;
+                next++;
+            }
+
+            labels[ e ] = canonical[ c ];
+            h = 31 * h + labels[ e ];
+        }
+
+        hash = h;
+    }
+
+    /**
+     * @return a copy of the fingerprint, to keep
+     */
+    public DesignFingerprint copy( )
+    {
+        return new DesignFingerprint( this );
+    }
+
+    @Override
+    public int hashCode( )
+    {
+        return hash;
+    }
+
+    @Override
+    public boolean equals( Object object )
+    {
+        boolean result = false;
+
+        if( object == this )
+        {
+            result = true;
+        }
+        else if( object instanceof DesignFingerprint )
+        {
+            final DesignFingerprint other = (DesignFingerprint) object;
+            result = hash == other.hash && Arrays.equals( labels, other.labels );
+        }
+
+        return result;
+    }
+
+}   // end class
+
+//------- end file ----------------------------------------
@@ -0,0 +1,141 @@
+/*
+ * FitnessCache.java
+ * 18 October 2026
+ */
+
+package daemonActions;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded cache of the fitness of designs - CBO, NAC, ATMR and
+ * modularity elegance - by design fingerprint, that forgets the least
+ * recently used design when full. As the search converges, most ants
+ * construct designs already seen, whose fitness is then looked up
+ * rather than calculated.
+ *
+ * The cache counts its lookups and hits, so that the hit rate can be
+ * reported for each iteration. It may be shared by the evaluators of
+ * several threads.
+ *
+ * @author Christopher Simons
+ */
+
+public class FitnessCache
+{
+    /** number of values held for each design */
+    public static final int NUMBER_OF_VALUES = 4;
+
+    /** largest number of designs held */
+    private final int capacity;
+
+    /** the fitness values, by fingerprint, least recently used first */
+    private final LinkedHashMap< DesignFingerprint, double[ ] > map;
+
+    /** lookups and hits since the counts were last reset */
+    private int lookups;
+    private int hits;
+
+    /**
+     * constructor
+     * @param largest number of designs held
+     */
+    public FitnessCache( final int capacity )
+    {
+        assert capacity > 0;
+        this.capacity = capacity;
+
+        map = new LinkedHashMap< DesignFingerprint, double[ ] >( 16, 0.75f, true )
+        {
+            @Override
+            protected boolean removeEldestEntry( Map.Entry< DesignFingerprint, double[ ] > eldest )
+            {
+                return size( ) > capacity;
+            }
+        };
+
+        lookups = 0;
+        hits = 0;
+    }
+
+    /**
+     * look up the fitness of a design
+     * @param fingerprint of the design, not kept
+     * @param values, filled in with CBO, NAC, ATMR and modularity if found
+     * @return true if found
+     */
+    public synchronized boolean lookup( DesignFingerprint fingerprint, double[ ] values )
+    {
+        assert fingerprint != null;
+        assert values != null && values.length == NUMBER_OF_VALUES;
+
+        lookups++;
+        final double[ ] held = map.get( fingerprint );
+
+        if( held != null )
+        {
+            System.arraycopy( held, 0, values, 0, NUMBER_OF_VALUES );
+            hits++;
+        }
+
+        return held != null;
+    }
+
+    /**
+     * hold the fitness of a design
+     * @param fingerprint of the design, copied
+     * @param values, CBO, NAC, ATMR and modularity
+     */
+    public synchronized void put( DesignFingerprint fingerprint, double[ ] values )
+    {
+        assert fingerprint != null;
+        assert values != null && values.length == NUMBER_OF_VALUES;
+
+        map.put( fingerprint.copy( ), values.clone( ) );
+    }
+
+    /**
+     * reset the counts of lookups and hits, e.g. for each iteration
+     */
+    public synchronized void resetCounts( )
+    {
+        lookups = 0;
+        hits = 0;
+    }
+
+    /**
+     * @return proportion of lookups found since the counts were reset
+     */
+    public synchronized double getHitRate( )
+    {
+        return lookups > 0 ? (double) hits / (double) lookups : 0.0;
+    }
+
+    /**
+     * @return number of lookups since the counts were reset
+     */
+    public synchronized int getLookups( )
+    {
+        return lookups;
+    }
+
+    /**
+     * @return number of designs held
+     */
+    public synchronized int size( )
+    {
+        return map.size( );
+    }
+
+    /**
+     * @return largest number of designs held
+     */
+    public int getCapacity( )
+    {
+        return capacity;
+    }
+
+}   // end class
+
+//------- end file ----------------------------------------
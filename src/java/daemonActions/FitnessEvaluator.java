@@ -0,0 +1,330 @@
+/*
+ * FitnessEvaluator.java
+ * 18 October 2026
+ */
+
+package daemonActions;
+
+import engine.Path;
+import myUtils.Utility;
+import problem.PackedUseMatrix;
+import problem.ProblemController;
+
+/**
+ * Calculates the fitness of design solution paths - CBO, NAC, ATMR and
+ * modularity elegance - from the node numbers of the path and the packed
+ * use matrix, into scratch arrays sized once for the design problem, so
+ * that evaluating a path allocates nothing.
+ *
+ * The scratch arrays are reused from path to path, so an evaluator must
+ * only be used by one thread at a time; each thread has its own.
+ *
+ * The fitness can also be accumulated node by node, as a path is built,
+ * between startPath and finishPath.
+ *
+ * With a fitness cache, which may be shared between evaluators, a path
+ * whose design has been seen before takes its fitness from the cache.
+ *
+ * @author Christopher Simons
+ */
+
+public class FitnessEvaluator
+{
+    /** the use matrix packed as bits */
+    private final PackedUseMatrix useMatrix;
+
+    private final int numberOfAttributes;
+    private final int numberOfMethods;
+    private final int numberOfUses;
+    private final int numberOfClasses;
+
+    /** number of attributes used by each method */
+    private final int[ ] methodUses;
+
+    /** scratch, the methods and attributes of the current class */
+    private final int[ ] methodNumbers;
+    private final int[ ] attributeNumbers;
+    private final long[ ] classAttributes;
+
+    /** scratch, for each class of the path */
+    private final int[ ] elementCounts;
+    private final double[ ] ratios;
+    private final int[ ] externalUses;
+
+    /** the path so far, and the class so far */
+    private int internalUses;
+    private int classCounter;
+    private int mIndex;
+    private int aIndex;
+    private int classUses;
+    private int internalClassUses;
+
+    /** fitness of designs seen before, or null */
+    private final FitnessCache cache;
+
+    /** scratch, the fingerprint and fitness of the current path's design */
+    private final DesignFingerprint fingerprint;
+    private final double[ ] values;
+
+    /**
+     * constructor
+     * @param problem controller, with its use matrix complete
+     */
+    public FitnessEvaluator( ProblemController problemController )
+    {
+        this( problemController, null );
+    }
+
+    /**
+     * constructor
+     * @param problem controller, with its use matrix complete
+     * @param fitness of designs seen before, or null
+     */
+    public FitnessEvaluator( ProblemController problemController, FitnessCache cache )
+    {
+        assert problemController != null;
+
+        useMatrix = problemController.getPackedUseMatrix( );
+        assert useMatrix != null;
+
+        numberOfAttributes = problemController.getNumberOfUniqueData( );
+        assert numberOfAttributes > 0;
+
+        numberOfMethods = problemController.getNumberOfUniqueActions( );
+        assert numberOfMethods > 0;
+
+        numberOfUses = problemController.getNumberOfUses( );
+        assert numberOfUses > 0;
+
+        numberOfClasses = problemController.getNumberOfClasses( );
+        assert numberOfClasses > 0;
+
+        // every attribute, as a set, to count the uses of each method
+        long[ ] allAttributes = new long[ useMatrix.getWordsPerRow( ) ];
+
+        for( int j = 0; j < numberOfAttributes; j++ )
+        {
+            PackedUseMatrix.addDatum( allAttributes, j );
+        }
+
+        methodUses = new int[ numberOfMethods ];
+
+        for( int i = 0; i < numberOfMethods; i++ )
+        {
+            methodUses[ i ] = useMatrix.countUses( i, allAttributes );
+        }
+
+        methodNumbers = new int[ numberOfMethods ];
+        attributeNumbers = new int[ numberOfAttributes ];
+        classAttributes = new long[ useMatrix.getWordsPerRow( ) ];
+
+        // standard deviations are taken over the whole of these
+        elementCounts = new int[ numberOfClasses ];
+        ratios = new double[ numberOfClasses ];
+        externalUses = new int[ numberOfClasses ];
+
+        this.cache = cache;
+        fingerprint = cache != null ?
+            new DesignFingerprint( numberOfAttributes + numberOfMethods, numberOfClasses ) : null;
+        values = new double[ FitnessCache.NUMBER_OF_VALUES ];
+    }
+
+    /**
+     * calculate fitness values for a design solution path
+     *
+     * IMPORTANT: the number of a node is the number of the element
+     * (attribute or method) PLUS ONE FOR THE NEST, so when indexing
+     * into the use matrix, we subtract one from the number
+     *
+     * @param path
+     */
+    public void evaluate( Path path )
+    {
+        assert path != null;
+
+        if( cache == null )
+        {
+            calculate( path );
+        }
+        else
+        {
+            fingerprint.set( path.getNodeNumbers( ) );
+
+            if( cache.lookup( fingerprint, values ) == true )
+            {
+                path.setCBO( values[ 0 ] );
+                path.setEleganceNAC( values[ 1 ] );
+                path.setEleganceATMR( values[ 2 ] );
+                path.setEleganceModularity( values[ 3 ] );
+                path.setEvaluated( );
+            }
+            else
+            {
+                calculate( path );
+
+                values[ 0 ] = path.getCBO( );
+                values[ 1 ] = path.getEleganceNAC( );
+                values[ 2 ] = path.getEleganceATMR( );
+                values[ 3 ] = path.getEleganceModularity( );
+                cache.put( fingerprint, values );
+            }
+        }
+    }
+
+    /**
+     * calculate the fitness of a path afresh
+     * @param path
+     */
+    private void calculate( Path path )
+    {
+        startPath( );
+
+        // now iterate along the nodes in the solution path
+        final int[ ] nodes = path.getNodeNumbers( );
+
+        for( int k = 0; k < nodes.length; k++ )
+        {
+            addNode( nodes[ k ] );
+        }
+
+        finishPath( path );
+    }
+
+    /**
+     * start the fitness of a path, to which nodes are then added
+     * one by one, e.g. as an ant constructs the path
+     */
+    public void startPath( )
+    {
+        internalUses = 0;
+        classCounter = 0;
+        startClass( );
+    }
+
+    /**
+     * clear out the counts for the next class
+     */
+    private void startClass( )
+    {
+        for( int j = 0; j < aIndex; j++ )
+        {
+            PackedUseMatrix.removeDatum( classAttributes, attributeNumbers[ j ] );
+        }
+
+        mIndex = 0;
+        aIndex = 0;
+        classUses = 0;
+        internalClassUses = 0;
+    }
+
+    /**
+     * add the next node of the path, and count the uses within
+     * the class between it and the elements already in the class
+     * @param node number
+     */
+    public void addNode( int number )
+    {
+        if( number == 0 )
+        {
+            // do nothing, it's the nest
+        }
+        else if( number <= numberOfAttributes )
+        {
+            final int attribute = number - 1; // minus one for the nest
+
+            for( int i = 0; i < mIndex; i++ )
+            {
+                if( useMatrix.uses( methodNumbers[ i ], attribute ) == true )
+                {
+                    internalClassUses++; // must be an internal use
+                }
+            }
+
+            PackedUseMatrix.addDatum( classAttributes, attribute );
+            attributeNumbers[ aIndex ] = attribute;
+            aIndex++;
+        }
+        else if( number <= numberOfAttributes + numberOfMethods )
+        {
+            final int method = number - numberOfAttributes - 1;   // minus one for the nest
+
+            internalClassUses += useMatrix.countUses( method, classAttributes );
+            classUses += methodUses[ method ];
+            methodNumbers[ mIndex ] = method;
+            mIndex++;
+        }
+        else
+        {
+            // it's an end of class, so we have a class
+            assert classCounter < numberOfClasses;
+
+            // for calculation of ATMR
+            if( mIndex > 0 && aIndex > 0 ) // are there both attributes and methods?
+            {
+                ratios[ classCounter ] = (double) aIndex / (double) mIndex;
+            }
+            else
+            {
+                ratios[ classCounter ] = 0.0;
+            }
+
+            // for calculation of CBO
+            internalUses += internalClassUses;
+
+            // for calculation of modularity, the uses of
+            // attributes of other classes by this class
+            externalUses[ classCounter ] = classUses - internalClassUses;
+
+            // for calculation of NAC
+            // (doesn't matter if class lacks attributes or methods)
+            elementCounts[ classCounter ] = aIndex + mIndex;
+
+            classCounter++;
+            startClass( );
+        }
+    }
+
+    /**
+     * finish the fitness of a path, once every node has been added
+     * @param the path, whose fitness values are set
+     */
+    public void finishPath( Path path )
+    {
+        assert path != null;
+
+        // establish post-conditions for the solution path
+        assert classCounter == numberOfClasses;
+        assert internalUses <= numberOfUses :
+            "internal uses is: " + internalUses +
+            ", number of uses is: " + numberOfUses;
+
+        // calculate CBO as a minimisation function
+        final double CBO = 1.0 - ( (double) internalUses / (double) numberOfUses );
+        assert CBO >= 0.0;
+        assert CBO <= 1.0;
+
+        path.setCBO( CBO );
+
+        // calculate NAC
+        final double NAC = Utility.standardDeviation( elementCounts );
+        assert NAC >= 0.0;
+
+        path.setEleganceNAC( NAC );
+
+        // calculate ATMR
+        final double ATMR = Utility.standardDeviation( ratios );
+        assert ATMR >= 0.0;
+
+        path.setEleganceATMR( ATMR );
+
+        // calculate modularity, as for EleganceDesign
+        final double modularity = Utility.standardDeviation( externalUses );
+        assert modularity >= 0.0;
+
+        path.setEleganceModularity( modularity );
+        path.setEvaluated( );
+    }
+
+}   // end class
+
+//------- end file ----------------------------------------
@@ -8,10 +8,13 @@
 package engine;
 
 import config.AlgorithmParameters;
+import daemonActions.FitnessEvaluator;
 import java.util.*;
-import pheromone.AlphaTable;
+import heuristics.CandidateLists;
+import heuristics.ChoiceInformation;
+import myUtils.FenwickTree;
+import myUtils.RandomStream;
 import myUtils.Utility;
-import softwareDesign.CLSClass;
 
 /**
  *
@@ -23,8 +26,8 @@ public class Ant
     /** end of class string */
     protected static final String END_OF_CLASS = "end of class";
     
-    /** reference to the list of attribute and method path */
-    protected List< Node > amList;
+    /** numbering of the nodes of a path */
+    protected final NodeLayout layout;
     
     /** size of the amList i.e. number of methods and attributes */
     protected final int amListSize;
@@ -32,14 +35,17 @@ public class Ant
     /** number of classes in software design */
     protected final int numberOfClasses;
     
-    /** reference to the table of pheromone values */
-    protected AlphaTable alphaTable;
+    /** 
+     * reference to the pheromone values, raised to the power of alpha,
+     * combined with the heuristic information
+     */
+    protected ChoiceInformation choiceInformation;
     
     /** current path, node by node */
     protected Path currentPath; 
     
-    /** list of classes that user elects to 'freeze' */
-    protected List< CLSClass> freezeList;
+    /** classes that user elects to 'freeze', compiled for the iteration */
+    protected FrozenElements frozen;
     
     /** is this ant handling constraints? */
     protected boolean handlingConstraints;
@@ -51,62 +57,161 @@ public class Ant
      */
     protected boolean valid; 
     
+    /** this ant's own stream of random numbers */
+    protected RandomStream random;
+    
+    /** 
+     * scratch buffers, reused across the steps of a path
+     * and across attempts at generating a path
+     */
+    private int[ ] workingListBuffer;
+    protected double[ ] weights;
+    
+    /** 
+     * for choosing among many remaining nodes, a tree of upper bounds 
+     * on the probabilities of moving to each node, and the position 
+     * of each node in the working list, both indexed by node number
+     */
+    private FenwickTree sampler;
+    private int[ ] positions;
+    private boolean samplerActive;
+    private boolean positionsActive;
+    
+    /** 
+     * for choosing among the candidates of the current node, the 
+     * position of each candidate in the working list and its weight
+     */
+    private int[ ] candidateIndices;
+    private double[ ] candidateWeights;
+    
+    /** 
+     * for constructive constraint handling, the numbers of attributes
+     * and methods in the open class, and the numbers of attributes, 
+     * methods and end of class markers remaining in the working list
+     */
+    private boolean constructing;
+    private int classAttributes;
+    private int classMethods;
+    private int remainingAttributes;
+    private int remainingMethods;
+    private int remainingEndOfClasses;
+    
+    /** 
+     * for incremental fitness, the fitness of the
+     * path is accumulated as each node is added, or null if not
+     */
+    private FitnessEvaluator fitnessEvaluator;
+    
     /** state of the generated path as we iterate */
     private enum State { start, inAClass, atEoC, invalid };
     
     /** 
      * constructor
-     * @param reference to list of attributes and methods
-     * @param number of classes
-     * @param reference to alpha table
-     * @param list of classes that user elects to "freeze"
+     * @param numbering of the nodes of a path
+     * @param reference to choice information
+     * @param classes that user elects to "freeze"
      * @param handling constraints boolean
      */
-    public Ant( List< Node > nodes,
-                int numberOfClasses,
-                AlphaTable at,
-                List< CLSClass > freezeList,
+    public Ant( NodeLayout layout,
+                ChoiceInformation ci,
+                FrozenElements frozen,
                 boolean handlingConstraints )
     {
-        assert nodes != null;
-        this.amList = nodes;
-        assert at != null;
-        this.alphaTable = at; 
-        assert freezeList != null;
-        this.freezeList = freezeList;
-        assert numberOfClasses > 0;
-        this.numberOfClasses = numberOfClasses;
+        assert layout != null;
+        this.layout = layout;
+        assert ci != null;
+        this.choiceInformation = ci; 
+        assert frozen != null;
+        this.frozen = frozen;
         
-        amListSize = amList.size( );
+        amListSize = layout.getNumberOfElements( );
+        numberOfClasses = layout.getNumberOfClasses( );
+        assert numberOfClasses > 0;
         
         currentPath = null;
         valid = false;
         
         this.handlingConstraints = handlingConstraints;
+        
+        // unseeded until the controller hands over the ant's own stream
+        this.random = new RandomStream( );
+    }
+    
+    /**
+     * reset the ant for a new iteration, keeping its buffers
+     * @param reference to choice information
+     * @param classes that user elects to "freeze"
+     * @param handling constraints boolean
+     */
+    public void reset( 
+        ChoiceInformation ci, FrozenElements frozen, boolean handlingConstraints )
+    {
+        assert ci != null;
+        this.choiceInformation = ci;
+        assert frozen != null;
+        this.frozen = frozen;
+        
+        this.handlingConstraints = handlingConstraints;
+        
+        currentPath = null;
+        valid = false;
+    }
+    
+    /**
+     * have the ant evaluate each path as it constructs it
+     * @param evaluator, for this ant alone, or null to not evaluate
+     */
+    public void setFitnessEvaluator( FitnessEvaluator fitnessEvaluator )
+    {
+        this.fitnessEvaluator = fitnessEvaluator;
+    }
+    
+    /**
+     * set the stream of random numbers used by this ant
+     * @param random stream
+     */
+    public void setRandomStream( RandomStream random )
+    {
+        assert random != null;
+        this.random = random;
     }
     
     /**
      * generate a solution (or path)
      * and then pass the path back to the environment.
+     * 
+     * the path is built as an array of node
+     * numbers, rather than a list of node objects
      */
     public void generateSolution( )
     {
-        assert amList.size( ) > 0;
+        assert amListSize > 0;
         
         // create a new path though the environment  
-        // to which path can be added
-        Path path = new Path( new DesignPathRole( ) );
+        // to which nodes can be added
+        final int pathLength = layout.getPathLength( );
+        int[ ] nodes = new int[ pathLength ];
+        int pathSize = 0;
         
         // create local node variables for path construction
-        Node current = null;
-        Node next = null;
+        int current = NodeLayout.NEST;
+        int next = 0;
         
         // the first node is always the nest
-        current = new Nest( "nest", 0 );
-        path.add( current );
+        nodes[ pathSize++ ] = current;
         
         // secondly, construct the path with elements from 'frozen' classes 
-        constructFromFrozenClasses( path );
+        pathSize = constructFromFrozenClasses( nodes, pathSize );
+        
+        if( fitnessEvaluator != null )
+        {
+            fitnessEvaluator.startPath( );
+            
+            for( int k = 0; k < pathSize; k++ )
+            {
+                fitnessEvaluator.addNode( nodes[ k ] );
+            }
+        }
         
         // now create a working list of all possible remaining elements
         // i.e. attributes, methods and ( end of classes - 1 )
@@ -114,11 +219,11 @@ public class Ant
         // 20 July 2012
         // working list amended to work with all elements
         // EXCEPT those in frozen classes
-        final int numberOfElementsFrozen = getNumberOfElementsFrozen( );
+        final int numberOfElementsFrozen = frozen.getNumberOfElements( );
         
-        List< Node > workingList = createWorkingList( );
-        final int workingListSize = workingList.size( );
-        final int numberOfEoCUsed = this.freezeList.size( );
+        int[ ] workingList = createWorkingList( );
+        final int workingListSize = workingList.length;
+        final int numberOfEoCUsed = frozen.getNumberOfClasses( );
         assert workingListSize == 
             amListSize - numberOfElementsFrozen + ( numberOfClasses - 1 - numberOfEoCUsed ):
                 "working list size is: " + workingListSize +
@@ -126,16 +231,36 @@ public class Ant
                 ", number of classes is: " + numberOfClasses + 
                 ", numberOfElementsFrozen is: " + numberOfElementsFrozen;
         
+        startConstruction( workingList, workingListSize );
+        
         // then node by node, construct the remaining path 
         // depending on the attractiveness of each possibility
+        int remaining = workingListSize;
         int nodeCounter = 0;
-        while( workingList.isEmpty( ) == false )
+        while( remaining > 0 )
         {
             // select the next node, according to attractiveness
-            next = selectNextNode( current, workingList, nodeCounter );
+            next = selectNextNode( current, workingList, remaining, nodeCounter );
+            remaining--;
+            
+            if( constructing == true )
+            {
+                recordSelection( next );
+            }
+            
+            // the other ants see the move at once
+            if( AlgorithmParameters.localPheromoneUpdate == true )
+            {
+                this.choiceInformation.localUpdate( current, next );
+            }
             
             // add the next node to the solution path
-            path.add( next );
+            nodes[ pathSize++ ] = next;
+            
+            if( fitnessEvaluator != null )
+            {
+                fitnessEvaluator.addNode( next );
+            }
             
             // and so the ant moves through the environment
             current = next;
@@ -143,106 +268,223 @@ public class Ant
             nodeCounter++;
         }
         
-        assert workingList.isEmpty( );
-        assert path.size( ) == workingListSize + numberOfElementsFrozen + 1 + numberOfEoCUsed:
+        assert pathSize == workingListSize + numberOfElementsFrozen + 1 + numberOfEoCUsed:
             "working list size is: " + workingListSize +
-            "path size is " + path.size( );
+            "path size is " + pathSize;
                 
         // the last node is always an end of class
-        path.add( new EndOfClass( END_OF_CLASS, workingListSize + 1 ) );
+        nodes[ pathSize++ ] = layout.getLastEndOfClass( );
         
         // lastly assert invariance,
         // i.e. the number of EndOfClasses == number of classes
         
-        assert( path.size( ) == amList.size( ) + this.numberOfClasses + 1 /* for the nest */ );
+        assert( pathSize == amListSize + this.numberOfClasses + 1 /* for the nest */ );
+        assert countEndOfClasses( nodes ) == this.numberOfClasses;
         
-        Iterator< Node > it = path.iterator( );
-        int counter = 0;
-        while( it.hasNext( ) ) 
+        // when solution path is constructed, assign it to 
+        // the current vertices instance variable 
+        this.currentPath = new Path( new DesignPathRole( ), layout, nodes );
+        
+        // the path comes out evaluated
+        if( fitnessEvaluator != null )
         {
-            Node node = it.next( );
+            fitnessEvaluator.addNode( layout.getLastEndOfClass( ) );
+            fitnessEvaluator.finishPath( this.currentPath );
+        }
+        
+        
+        // 28 May 2012 
+        if( handlingConstraints == true )
+        {
+            this.valid = checkValidity( nodes );
+            assert this.valid == true || constructing == false;
+        }
+        
+    }
+    
+    /**
+     * start constructive constraint handling for a new working list,
+     * if it is turned on and the problem allows every class to have at 
+     * least one attribute and one method. Otherwise, constraints are 
+     * handled by the controller retrying until a path is valid.
+     * @param working list of node numbers
+     * @param number of nodes in the working list
+     */
+    private void startConstruction( int[ ] workingList, int workingListSize )
+    {
+        constructing = false;
+        
+        if( handlingConstraints == false || 
+            AlgorithmParameters.constructiveConstraintHandling == false )
+        {
+            return;
+        }
+        
+        classAttributes = 0;
+        classMethods = 0;
+        remainingAttributes = 0;
+        remainingMethods = 0;
+        remainingEndOfClasses = 0;
+        
+        for( int i = 0; i < workingListSize; i++ )
+        {
+            final int number = workingList[ i ];
             
-            if( node instanceof EndOfClass )
+            if( layout.isAttribute( number ) )
+            {
+                remainingAttributes++;
+            }
+            else if( layout.isMethod( number ) )
+            {
+                remainingMethods++;
+            }
+            else
+            {
+                remainingEndOfClasses++;
+            }
+        }
+        
+        // the open class, and each class still to be opened, 
+        // needs an attribute and a method
+        constructing = 
+            remainingAttributes >= remainingEndOfClasses + 1 &&
+            remainingMethods >= remainingEndOfClasses + 1;
+    }
+    
+    /**
+     * can a node be the next node of the path, and still leave 
+     * enough attributes and methods for the open class and every 
+     * class still to be opened to have at least one of each?
+     * @param node number
+     * @return true if the node may be selected, false otherwise
+     */
+    private boolean isFeasible( int next )
+    {
+        boolean result = false;
+        
+        if( layout.isAttribute( next ) )
+        {
+            result = remainingAttributes - 1 >= remainingEndOfClasses;
+        }
+        else if( layout.isMethod( next ) )
+        {
+            result = remainingMethods - 1 >= remainingEndOfClasses;
+        }
+        else
+        {
+            // closing the open class opens a new one,
+            // which needs an attribute and a method
+            result = classAttributes > 0 && classMethods > 0 &&
+                     remainingAttributes >= remainingEndOfClasses &&
+                     remainingMethods >= remainingEndOfClasses;
+        }
+        
+        return result;
+    }
+    
+    /**
+     * record the selection of a node in the constructive
+     * constraint handling state
+     * @param node number
+     */
+    private void recordSelection( int next )
+    {
+        assert isFeasible( next );
+        
+        if( layout.isAttribute( next ) )
+        {
+            classAttributes++;
+            remainingAttributes--;
+        }
+        else if( layout.isMethod( next ) )
+        {
+            classMethods++;
+            remainingMethods--;
+        }
+        else
+        {
+            classAttributes = 0;
+            classMethods = 0;
+            remainingEndOfClasses--;
+        }
+    }
+    
+    /**
+     * count the end of class markers in a path,
+     * showing the path if the count is wrong
+     * @param nodes of the path
+     * @return number of end of class markers
+     */
+    private int countEndOfClasses( int[ ] nodes )
+    {
+        int counter = 0;
+        
+        for( int i = 0; i < nodes.length; i++ )
+        {
+            if( layout.isEndOfClass( nodes[ i ] ) )
             {
                 counter++;
             }
         }
         
-        String s = "";
-        Iterator< Node > it2 = path.iterator( );
         if( counter != this.numberOfClasses )
         {
-            while( it2.hasNext( ) )
+            String s = "";
+            for( int i = 0; i < nodes.length; i++ )
             {
-                Node node = it2.next( );
-                s += ( node.getName( ) + " " + node.getNumber( ) + " ," ); 
-                if( node instanceof EndOfClass )
+                s += ( layout.createNode( nodes[ i ] ).getName( ) + " " + nodes[ i ] + " ," ); 
+                if( layout.isEndOfClass( nodes[ i ] ) )
                 {
                     System.out.println( s );
                     s = "";
                 }
             }
         }
-        assert counter == this.numberOfClasses;
-        
-        // when solution path is constructed, assign it to 
-        // the current vertices instance variable 
-        this.currentPath = path;
-        
-        
-        // 28 May 2012 
-        if( handlingConstraints == true )
-        {
-            this.valid = checkValidity( path );
-        }
         
+        return counter;
     }
     
     /**
      * create a working list of path elements containing
      * all methods, all attributes, and appropriate
      * number of EndOfClass path.
-     * @return working list of path
+     * @return working list of node numbers
      */
-    protected List< Node > createWorkingList( )
+    protected int[ ] createWorkingList( )
     {
-        List< Node > workingList = new ArrayList<  >( );
+        // frozen classes are done first and have already used up their
+        // end of class nodes
+        final int numberOfEoCUsed = frozen.getNumberOfClasses( );
+        final int numberOfEndOfClasses = ( this.numberOfClasses - 1 ) - numberOfEoCUsed;
+        final int numberOfElementsFrozen = frozen.getNumberOfElements( );
+        
+        final int length = ( amListSize - numberOfElementsFrozen ) + numberOfEndOfClasses;
+        
+        if( workingListBuffer == null || workingListBuffer.length != length )
+        {
+            workingListBuffer = new int[ length ];
+        }
+        
+        int[ ] workingList = workingListBuffer;
+        int size = 0;
         
         // easy bit - add the attributes and methods
-        assert this.amList.isEmpty( ) == false;
-        assert this.amListSize == amList.size( );
+        // (the node numbers are one more than in the amList
+        // because of the "nest")
+        assert this.amListSize > 0;
         
-        for( Node n : amList )
+        for( int number = 1; number <= amListSize; number++ )
         {
-            Node node = null;
-                        
-            if( n instanceof Attribute )
-            {
-                node = new Attribute( 
-                    n.getName( ), n.getNumber( ) + 1 );
-            }
-            else if( n instanceof Method )
-            {
-                node = new Method( 
-                    n.getName( ), n.getNumber( ) + 1 );
-            }
-            else
-            {
-                assert false: "impossible type!!!";
-            }
-            
-            assert node != null;
-            
-            if( isInAFrozenClass( node ) == false )
+            if( frozen.isFrozen( number ) == false )
             {       
-                workingList.add( node );
+                workingList[ size++ ] = number;
             }
         }
         
         // at this point, the working list must be the 
         // same size as the attribute and method list size
-        assert workingList.size( ) == amListSize - getNumberOfElementsFrozen( ); 
-//        System.out.println("working list size is: " + workingList.size( ) );
+        assert size == amListSize - numberOfElementsFrozen; 
+//        System.out.println("working list size is: " + size );
         
         
         // tricky bit now - last node is always an EndOfClass
@@ -250,93 +492,357 @@ public class Ant
         // Thus add (number of classes - 1) EndOfClasses to working list
         // 24 July 2012
         // frozen classes are done first and have already used up their
-        // end of class nodes
-        int counter = amListSize + 1;
+        // end of class nodes, so their numbers come first
+        int counter = layout.getFirstEndOfClass( ) + numberOfEoCUsed;
         int i = 0;
-        final int numberOfEoCUsed = this.freezeList.size( );
-        final int numberOfEndOfClasses = ( this.numberOfClasses - 1 ) - numberOfEoCUsed;
         
         for( i = 0; i < numberOfEndOfClasses; i++ )
         {
-            workingList.add( new EndOfClass( END_OF_CLASS, counter++ ) );
+            workingList[ size++ ] = counter++;
         }
         
-        assert counter == amListSize + numberOfEndOfClasses + 1;
-        assert workingList.size( ) == 
-            ( amListSize - getNumberOfElementsFrozen( ) ) + numberOfEndOfClasses;
+        assert counter == layout.getLastEndOfClass( );
+        assert size == workingList.length;
         
         // for testing
 //        System.out.println( "this is the working list" );
-//        for( Node n : workingList )
+//        for( int n : workingList )
 //        {
-//            System.out.print( n.getName( ) + " " );
-//            System.out.println( n.getNumber( ) );
+//            System.out.println( n );
 //        }
 
+        prepareSampler( workingList, size );
+        
         return workingList;
     }
     
+    /**
+     * prepare the tree of upper bounds for a new working list, when 
+     * there are too many nodes for a linear roulette wheel scan,
+     * and the positions of the nodes, when the tree or the candidate
+     * lists need them.
+     * 
+     * The bound for a node is the largest choice information for 
+     * moving to it from any node.
+     * @param working list of node numbers
+     * @param number of nodes in the working list
+     */
+    private void prepareSampler( int[ ] workingList, int workingListSize )
+    {
+        samplerActive = workingListSize > AlgorithmParameters.ROULETTE_LINEAR_THRESHOLD;
+        positionsActive = 
+            samplerActive || this.choiceInformation.getCandidateLists( ) != null;
+        
+        if( positionsActive == false )
+        {
+            return;
+        }
+        
+        final int pathLength = layout.getPathLength( );
+        
+        if( positions == null )
+        {
+            positions = new int[ pathLength ];
+        }
+        
+        if( samplerActive == false )
+        {
+            for( int i = 0; i < workingListSize; i++ )
+            {
+                positions[ workingList[ i ] ] = i;
+            }
+            
+            return;
+        }
+        
+        if( sampler == null )
+        {
+            sampler = new FenwickTree( pathLength );
+        }
+        
+        if( weights == null || weights.length < pathLength )
+        {
+            weights = new double[ pathLength ];
+        }
+        
+        // nodes not in the working list have a zero bound
+        final double[ ] bounds = weights;
+        Arrays.fill( bounds, 0, pathLength, 0.0 );
+        
+        for( int i = 0; i < workingListSize; i++ )
+        {
+            final int number = workingList[ i ];
+            positions[ number ] = i;
+            
+            bounds[ number ] = this.choiceInformation.getColumnBound( number );
+        }
+        
+        sampler.fill( bounds, pathLength );
+    }
+    
+    /**
+     * the probability of moving from the current node to the next
+     * @param current node
+     * @param next possible node
+     * @param the number of nodes selected so far
+     * @return probability, after any heuristic information is applied
+     */
+    private double getWeight( int current, int next, int nodeCounter )
+    {
+        if( constructing == true && isFeasible( next ) == false )
+        {
+            return 0.0;
+        }
+        
+        final double prob = this.choiceInformation.getChoiceAt( current, next, nodeCounter );
+        assert prob >= 0.0 : "probability is: " + prob;
+        
+        return prob;
+    }
     
     /**
      * select the next node based on pheromone 'attractiveness'
      * @param the current node
-     * @param the working list of path
-     * @return the next node 
+     * @param the working list of node numbers
+     * @param the number of nodes still in the working list
+     * @param the number of nodes selected so far
+     * @return the next node, which is removed from the working list
+     * 
+     * the weights go in a scratch buffer kept by
+     * the ant, and the selected node is replaced by the last node in
+     * the working list. The order of the working list does not alter
+     * the probability of selecting any node, only which random 
+     * number selects it.
+     * 
+     * Among many remaining nodes, a candidate is first drawn from the 
+     * tree of upper bounds, in O( log n ) time, and accepted with 
+     * probability equal to its actual probability over its bound. 
+     * Accepted candidates are selected with exactly the roulette wheel 
+     * probabilities. Should too many candidates be rejected, the 
+     * linear roulette wheel scan chooses instead.
+     * 
+     * With candidate lists, the roulette wheel spins over just those 
+     * candidates of the current node still in the working list, and 
+     * over the whole working list only once they are all used up.
      */
-    protected Node selectNextNode( 
-        Node current, List< Node > workingList, int nodeCounter )
+    protected int selectNextNode( 
+        int current, int[ ] workingList, int workingListSize, int nodeCounter )
     {
-        assert current != null;
         assert workingList != null;
-        assert workingList.size( ) > 0;
+        assert workingListSize > 0;
+        assert workingListSize <= workingList.length;
         assert nodeCounter >= 0;
-        final int workingListSize = workingList.size( );
+        
+        int selectedIndex = -1;
         
         // handle the situation where the ant reaches the end of the path
         // i.e there's only ONE node left in the list 
         if( workingListSize == 1 )
         {
-            Node result = workingList.remove( 0 );
-            assert workingList.isEmpty( );
-            return result;
+            selectedIndex = 0;
+        }
+        else
+        {
+            if( this.choiceInformation.getCandidateLists( ) != null )
+            {
+                selectedIndex = selectFromCandidates( 
+                    current, workingList, workingListSize, nodeCounter );
+            }
+            
+            if( selectedIndex < 0 && samplerActive == true && 
+                workingListSize > AlgorithmParameters.ROULETTE_LINEAR_THRESHOLD )
+            {
+                selectedIndex = selectByRejection( current, nodeCounter );
+            }
+        }
+        
+        if( selectedIndex < 0 )
+        {
+            selectedIndex = selectByLinearScan( 
+                current, workingList, workingListSize, nodeCounter );
+        }
+        
+        assert selectedIndex >= 0;
+        assert selectedIndex < workingListSize :
+                "selected index is: " + selectedIndex + 
+                " working list size is: " + workingListSize;
+        
+        // return and remove the selected node in the working list,
+        // moving the last node into the gap
+        final int result = workingList[ selectedIndex ];
+        final int last = workingList[ workingListSize - 1 ];
+        workingList[ selectedIndex ] = last;
+        
+        if( positionsActive == true )
+        {
+            positions[ last ] = selectedIndex;
         }
         
-        // else there must be more than one node to select from!
-        assert workingList.size( ) > 1;
+        if( samplerActive == true )
+        {
+            sampler.remove( result );
+        }
+        
+        return result;
+    }
+    
+    /**
+     * select a node by a "roulette wheel" scan of the candidates 
+     * of the current node that are still in the working list
+     * @param the current node
+     * @param the working list of node numbers
+     * @param the number of nodes still in the working list
+     * @param the number of nodes selected so far
+     * @return index of the selected node in the working list, 
+     * or -1 if no candidate remains that can be selected
+     */
+    private int selectFromCandidates( 
+        int current, int[ ] workingList, int workingListSize, int nodeCounter )
+    {
+        final CandidateLists candidateLists = this.choiceInformation.getCandidateLists( );
+        
+        if( candidateIndices == null || 
+            candidateIndices.length < candidateLists.getLength( ) )
+        {
+            candidateIndices = new int[ candidateLists.getLength( ) ];
+            candidateWeights = new double[ candidateLists.getLength( ) ];
+        }
+        
+        final int numberOfCandidates = candidateLists.getNumberOfCandidates( current );
+        int count = 0;
+        double sum = 0.0;
         
-        // and so let's choose it!
-        final int currentNodeNumber = current.getNumber( );
+        for( int k = 0; k < numberOfCandidates; k++ )
+        {
+            final int next = candidateLists.getCandidate( current, k );
+            final int position = positions[ next ];
+            
+            // still in the working list?
+            if( position < workingListSize && workingList[ position ] == next )
+            {
+                final double prob = getWeight( current, next, nodeCounter );
+                
+                if( prob > 0.0 )
+                {
+                    candidateIndices[ count ] = position;
+                    candidateWeights[ count ] = prob;
+                    count++;
+                    sum += prob;
+                }
+            }
+        }
+        
+        int result = -1;
+        
+        if( count > 0 )
+        {
+            final double spin = Utility.getRandomInRange( this.random, 0.0, sum );
+            double runningTotal = 0.0;
+            result = candidateIndices[ count - 1 ];
+            
+            for( int k = 0; k < count; k++ )
+            {
+                runningTotal += candidateWeights[ k ];
+                
+                if( runningTotal >= spin )
+                {
+                    result = candidateIndices[ k ];
+                    break;
+                }
+            }
+        }
+        
+        return result;
+    }
+    
+    /**
+     * select a node by drawing candidates from the tree of upper bounds
+     * @param the current node
+     * @param the number of nodes selected so far
+     * @return index of the selected node in the working list, 
+     * or -1 if every candidate drawn was rejected
+     */
+    private int selectByRejection( int current, int nodeCounter )
+    {
+        final double total = sampler.getTotal( );
+        int result = -1;
+        
+        for( int attempt = 0; 
+             attempt < AlgorithmParameters.ROULETTE_MAXIMUM_REJECTIONS && result < 0;
+             attempt++ )
+        {
+            final double spin = Utility.getRandomInRange( this.random, 0.0, total );
+            final int candidate = sampler.find( spin );
+            final double bound = sampler.getWeight( candidate );
+            
+            if( bound > 0.0 )
+            {
+                final double prob = getWeight( current, candidate, nodeCounter );
+                assert prob <= bound * ( 1.0 + 1.0e-9 ) : 
+                    "probability is: " + prob + " bound is: " + bound;
+                
+                if( this.random.nextDouble( ) * bound < prob )
+                {
+                    result = positions[ candidate ];
+                }
+            }
+        }
         
+        return result;
+    }
+    
+    /**
+     * select a node by a linear "roulette wheel" scan of the working list
+     * @param the current node
+     * @param the working list of node numbers
+     * @param the number of nodes still in the working list
+     * @param the number of nodes selected so far
+     * @return index of the selected node in the working list
+     */
+    private int selectByLinearScan( 
+        int current, int[ ] workingList, int workingListSize, int nodeCounter )
+    {
         // prepare a fitness proportionate node selection mechanism
         // implemented by a "roulette wheel" approach
-        double[ ] probabilities = new double[ workingListSize ];
+        if( weights == null || weights.length < workingListSize )
+        {
+            weights = new double[ layout.getPathLength( ) ];
+        }
+        
+        final double[ ] probabilities = weights;
         double sum = 0.0;
         
         // for each node in the working list,
         // get the probability related to
         // 'from' the current node (x axis in the table)
         // 'to' all possible path (y axis in the table)
+        // straight from the alpha table,
+        // with the heuristic factor for any end of class
+        final double endOfClassFactor = 
+            this.choiceInformation.getEndOfClassFactor( current, nodeCounter );
+        
         for( int i = 0; i < workingListSize; i++ )
         {
-            int workingListNodeNumber = workingList.get( i ).getNumber( );
-           
-            final double temp = this.alphaTable.getProbabilityAt( currentNodeNumber, workingListNodeNumber );
-            double prob = temp;
+            final int next = workingList[ i ];
+            double prob = this.choiceInformation.getPheromoneAt( current, next );
             
-            if( AlgorithmParameters.heuristics == true )
+            if( layout.isEndOfClass( next ) )
             {
-                // apply the heuristic information
-                prob = applyBeta( temp, current, workingList.get( i ), nodeCounter );
-                assert prob >= 0.0 : "probability is: " + prob;
+                prob *= endOfClassFactor;
             }
-                        
+            
+            if( constructing == true && isFeasible( next ) == false )
+            {
+                prob = 0.0;
+            }
+            
             probabilities[ i ] = prob; 
             
             sum += probabilities[ i ];
         }
         
         // now spin the "roulette wheel" to get a random number...
-        double random = Utility.getRandomInRange( 0.0, sum );
+        double random = Utility.getRandomInRange( this.random, 0.0, sum );
         assert random >= 0.0;
         assert random <= sum;
         
@@ -353,24 +859,28 @@ public class Ant
             {
                 // do nothing, continue...
             }
+            else if( constructing == true && probabilities[ j ] == 0.0 )
+            {
+                // do nothing, it can't be selected
+            }
             else
             {
                 finished = true;
                 selectedIndex = j;
             }
-      }
-        
-//        System.out.print("out of loop and j is: " + j + "," );
-//        System.out.println("and selected index is: " + selectedIndex );
-//        System.out.println( " " );
+        }
         
-        assert selectedIndex >= 0;
-        assert selectedIndex < workingListSize :
-                "selected index is: " + selectedIndex + 
-                " working list size is: " + workingListSize;
+        // when every feasible node is improbable, take the first
+        if( constructing == true && ( finished == false || sum == 0.0 ) )
+        {
+            selectedIndex = 0;
+            while( isFeasible( workingList[ selectedIndex ] ) == false )
+            {
+                selectedIndex++;
+            }
+        }
         
-        // return and remove the selected node in the working list
-        return workingList.remove( selectedIndex );
+        return selectedIndex;
     }
     
     /**
@@ -434,27 +944,25 @@ public class Ant
     
     /**
      * check the validity of a path
-     * @param path to be checked
+     * @param node numbers of the path to be checked
      * @return true if path is valid, false otherwise
      */
-    protected boolean checkValidity( Path path )
+    protected boolean checkValidity( int[ ] nodes )
     {
         boolean result = true;
         State state = State.start;
         int attributes = 0;
         int methods = 0;
         
-        Iterator< Node > it = path.iterator( );
-        
-        while( it.hasNext( ) && result == true )
+        for( int i = 0; i < nodes.length && result == true; i++ )
         {
-            Node node = it.next( );
+            NodeLayout.Kind kind = layout.kindOf( nodes[ i ] );
             
-            if( node instanceof Nest )
+            if( kind == NodeLayout.Kind.nest )
             {
                 // do nothing, we're at the nest
             }
-            else if( node instanceof Attribute )
+            else if( kind == NodeLayout.Kind.attribute )
             {
                 if( state == State.start )
                 {
@@ -475,7 +983,7 @@ public class Ant
                     assert true : "invalid state";
                 }
             }
-            else if( node instanceof Method )
+            else if( kind == NodeLayout.Kind.method )
             {
                 if( state == State.start )
                 {
@@ -496,7 +1004,7 @@ public class Ant
                     assert true : "invalid state";
                 }           
             }
-            else if ( node instanceof EndOfClass )
+            else if ( kind == NodeLayout.Kind.endOfClass )
             {
                 if( state == State.start )
                 {
@@ -540,115 +1048,26 @@ public class Ant
     
     /**
      * add nodes to the path based on the frozen class(es)
-     * @param path 
+     * 
+     * the frozen classes are compiled once per
+     * iteration, so this is just a copy of the frozen prefix
+     * 
+     * @param node numbers of the path
+     * @param number of nodes already in the path
+     * @return number of nodes in the path afterwards
      */
-    protected void constructFromFrozenClasses( Path path )
+    protected int constructFromFrozenClasses( int[ ] nodes, int pathSize )
     {
-        assert path != null;
+        assert nodes != null;
         // precondition: must already contain the "nest"
-        assert path.size( ) == 1;
-        
-        // keep a count of nodes we've added to the path
-        int nodeCount = 1;
-        
-        // the element numbers in the path are one more than 
-        // in the amlist because of the "nest"
-        
-        for( CLSClass c : this.freezeList )
-        {
-            List< Method > mList = c.getMethodList( );
-            for( Method m : mList )
-            {
-                path.add( new Method( m.getName( ), m.getNumber( ) + 1 ) );
-                nodeCount++;
-            }
-            
-            List< Attribute > aList = c.getAttributeList( );
-            for( Attribute a : aList )
-            {
-                path.add( new Attribute( a.getName( ), a.getNumber( ) + 1 ) );
-                nodeCount++;
-            }
-            
-            nodeCount++;
-            path.add( new EndOfClass( END_OF_CLASS, nodeCount ) );
-        }
-    }
-    
-    
-    protected int getNumberOfElementsFrozen( )
-    {
-        assert this.freezeList != null;
-        int result = 0;
+        assert pathSize == 1;
         
-        for( CLSClass c : this.freezeList )
-        {
-            List< Method > mList = c.getMethodList( );
-            result += mList.size( );
-            
-            List< Attribute > aList = c.getAttributeList( );
-            result += aList.size( );
-        }
+        final int[ ] prefix = frozen.getPrefix( );
+        System.arraycopy( prefix, 0, nodes, pathSize, prefix.length );
         
-        return result;
-    }
-    
-    protected boolean isInAFrozenClass( Node node )
-    {
-        assert node != null;
-        assert this.freezeList != null;
-        boolean result = false;
-        
-        for( CLSClass c : this.freezeList )
-        {
-            if( node instanceof Method )
-            {
-                List< Method > mList = c.getMethodList( );
-                
-                for( Method m : mList )
-                {
-                    if( m.getNumber( ) == node.getNumber( ) )
-                    {
-                        result = true;
-                        break;
-                    }
-                }
-            }
-            else if( node instanceof Attribute )
-            {
-                List< Attribute > aList = c.getAttributeList( );
-                
-                for( Attribute a : aList )
-                {
-                    if( a.getNumber( ) == node.getNumber( ) )
-                    {
-                        result = true;
-                        break;
-                    }
-                }
-            }
-            else
-            {
-                assert false : "impossible type of node";
-            }
-        }
-        
-        return result;
+        return pathSize + prefix.length;
     }
 
-    /**
-     * apply heuristic information via beta.
-     * As this file does not use heuristic information, 
-     * the method simply returns the argument i.e. does nothing.
-     * However, this method is overridden in HeuristicAnt2 
-     * @param temp, the probability value after alpha has been applied
-     * @return temp, the probability value after alpha has been applied
-     */
-    protected double applyBeta( double temp, Node current, Node node, int nodeCounter )
-    {
-        return temp;
-    }
-    
 }   // end class
 
 //------- end file ----------------------------------------
@@ -17,20 +17,32 @@ import com.ServletController;
 import config.AlgorithmParameters;
 import config.Parameters;
 import daemonActions.DaemonOperators;
+import daemonActions.FitnessCache;
+import daemonActions.FitnessEvaluator;
+import heuristics.CandidateLists;
+import heuristics.ChoiceInformation;
 import heuristics.HeuristicAnt2;
 import heuristics.HeuristicInformation;
 import java.text.DecimalFormat;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 import javax.swing.JOptionPane;
 import learning.Coefficients;
 import learning.IterationInformation;
 import learning.RegressionAgent;
 import myGui.VisualiseEvaluateDialog;
+import myUtils.RandomStream;
 import myUtils.Utility;
 import myUtils.Weights;
 import net.sourceforge.openforecast.Observation;
 import pareto.ParetoOperators;
 import pheromone.AlphaTable;
+import pheromone.MappedCellStore;
 import pheromone.PheromoneOperators;
 import pheromone.PheromoneTable;
 import problem.CLSAction;
@@ -41,6 +53,7 @@ import reporting.InteractiveResults;
 import reporting.MultiObjectiveResults;
 import softwareDesign.CLSClass;
 import softwareDesign.EleganceDesign;
+import softwareDesign.SoftwareDesign;
 
 
 public class Controller
@@ -72,6 +85,12 @@ public class Controller
     /** list of all the attributes and methods in the colony */
     private List< Node > amList; 
     
+    /** numbering of the nodes of the solution paths */
+    private NodeLayout layout;
+    
+    /** most promising successors of each node, or null if not used */
+    private CandidateLists candidateLists;
+    
     /** number of classes in software design */
     private static int numberOfClasses;
 
@@ -84,9 +103,30 @@ public class Controller
     /** the elite archive */
     private Stack< Path > eliteArchive;
     
+    /** 
+     * paths from existing designs, or from earlier 
+     * runs, to seed the pheromone table of each run, as node numbers
+     */
+    private List< int[ ] > warmStartPaths;
+    
     /** the problem controller, for use table */
     private ProblemController problemController;
     
+    /** fitness of the paths, for the daemon actions */
+    private FitnessEvaluator fitnessEvaluator;
+    
+    /** 
+     * for parallel evaluation, one evaluator for
+     * each share of the colony, created on first use
+     */
+    private FitnessEvaluator[ ] shareEvaluators;
+    
+    /** fitness of designs seen before, or null */
+    private FitnessCache fitnessCache;
+    
+    /** hit rate of the fitness cache at each iteration */
+    private double[ ] cacheHitRates;
+    
     /** interactiveResults for an interactive episode */
     private double bestSoFarCBO;
     private double bestSoFarEleganceNAC;
@@ -136,6 +176,40 @@ public class Controller
     /** the decimal format for all doubles used by the controller */
     private DecimalFormat df;
     
+    /** 
+     * worker threads for parallel construction, 
+     * and parallel evaluation, created on first use 
+     */
+    private ExecutorService constructionPool;
+    
+    /** number of worker threads in the pool */
+    private int numberOfThreads;
+    
+    /** 
+     * the ants, created in the first iteration and reset for each
+     * iteration after, so that they keep their buffers
+     */
+    private Ant[ ] antPool;
+    private int[ ] antAttempts;
+    
+    /** master seed from which every run and every ant stream is derived */
+    private final long masterSeed;
+    
+    /** random stream of the current run */
+    private RandomStream runRandom;
+    
+    /** the file the pheromone of every run is mapped to, or null if not mapped */
+    private final String mappedPheromoneFile;
+    
+    /** alpha, mu and rho of this colony */
+    private double alpha;
+    private double mu;
+    private double rho;
+    
+    /** the island model this colony is part of, or null */
+    private IslandController islands;
+    private int islandNumber;
+    
     /**
      * constructor
      * @param problemController
@@ -159,12 +233,25 @@ public class Controller
         NUMBER_OF_ITERATIONS = AlgorithmParameters.NUMBER_OF_ITERATIONS;
         NUMBER_OF_ANTS = AlgorithmParameters.NUMBER_OF_ANTS;
         
+        alpha = AlgorithmParameters.ALPHA;
+        mu = AlgorithmParameters.MU;
+        rho = AlgorithmParameters.RHO;
+        
         initialiseLists( problemController );
         // for testing only
 //        showLists( );   
 
         numberOfClasses = problemController.getNumberOfClasses( );
         
+        layout = new NodeLayout( amList, attributeList.size( ), numberOfClasses );
+        
+        if( AlgorithmParameters.CANDIDATE_LIST_SIZE > 0 )
+        {
+            candidateLists = new CandidateLists( 
+                layout, problemController.getUseMatrix( ), 
+                AlgorithmParameters.CANDIDATE_LIST_SIZE );
+        }
+        
         // 14 Jan 2013
         HeuristicInformation.setUp( 
             this.attributeList.size( ), this.methodList.size( ), Controller.numberOfClasses );
@@ -172,6 +259,14 @@ public class Controller
         colony = new ArrayList< >( );
         eliteArchive = new Stack< >( );
         
+        if( AlgorithmParameters.FITNESS_CACHE_SIZE > 0 )
+        {
+            fitnessCache = new FitnessCache( AlgorithmParameters.FITNESS_CACHE_SIZE );
+        }
+        
+        fitnessEvaluator = new FitnessEvaluator( problemController, fitnessCache );
+        warmStartPaths = new ArrayList< >( );
+        
         // set best so far values to arbitrary value
         bestSoFarCBO = 100.0;
         bestSoFarEleganceNAC = 100.0;
@@ -190,6 +285,7 @@ public class Controller
         // 30 May 2012
         numberOfRetries = new int[ NUMBER_OF_ITERATIONS ];
         averageAttempts = new double[ NUMBER_OF_ITERATIONS ];
+        cacheHitRates = new double[ NUMBER_OF_ITERATIONS ];
         
         for( int i = 0; i < NUMBER_OF_ITERATIONS; i++ )
         {
@@ -223,6 +319,24 @@ public class Controller
         
         df = new DecimalFormat( "0.000" );
         
+        constructionPool = null;
+        numberOfThreads = Math.max( 1, AlgorithmParameters.NUMBER_OF_THREADS );
+        
+        if( AlgorithmParameters.seeded == true )
+        {
+            masterSeed = AlgorithmParameters.MASTER_SEED;
+        }
+        else
+        {
+            masterSeed = new RandomStream( ).nextLong( );
+        }
+        runRandom = null;
+        
+        // one file for the colony, however many runs it makes
+        mappedPheromoneFile = 
+            AlgorithmParameters.pheromoneStorage == AlgorithmParameters.PheromoneStorage.mapped ?
+                MappedCellStore.nextFileName( AlgorithmParameters.MAPPED_PHEROMONE_FILE ) : null;
+        
         if( AlgorithmParameters.replacementElitism == true )
         {
             this.replacementElitism = true;
@@ -327,11 +441,33 @@ public class Controller
         long before = 0;
         long after = 0;
         
+        // each run has its own stream, derived from the master seed
+        runRandom = new RandomStream( masterSeed ).derive( runNumber );
+        
+        // and so does each island of the run
+        if( islands != null )
+        {
+            runRandom = runRandom.derive( islandNumber );
+        }
+        
         // create a new Pheromone table for each run
         pheromoneTable = new PheromoneTable( 
-            amList, numberOfClasses, problemController );
+            amList, numberOfClasses, problemController, mappedPheromoneFile );
 //        pheromoneTable.show( );
         
+        if( pheromoneTable.getMappedFileName( ) != null )
+        {
+            System.out.println( "pheromone table mapped to " + pheromoneTable.getMappedFileName( ) );
+        }
+        
+        // start from what is already known to be good
+        PheromoneOperators.warmStart( 
+            pheromoneTable, warmStartPaths, AlgorithmParameters.WARM_START_STRENGTH );
+        
+        // the alpha table lives as long as 
+        // the pheromone table, and is refreshed each iteration
+        AlphaTable alphaTable = new AlphaTable( this.pheromoneTable, this.alpha );
+        
         Weights weights = null;
         if( this.mode == Mode.interactive )
         {
@@ -363,6 +499,13 @@ public class Controller
         
         boolean halted = false;
         
+        // best CBO, NAC and ATMR of the run,
+        // so far and at the last check for stagnation
+        double[ ] bestInRun = { Double.MAX_VALUE, Double.MAX_VALUE, Double.MAX_VALUE };
+        double[ ] bestAtLastCheck = bestInRun.clone( );
+        int restarts = 0;
+        int iterationsDone = 0;
+        
         // perform ACO search until iterations are terminated
         for( int i = 0; i < NUMBER_OF_ITERATIONS && halted == false; i++  )
         {
@@ -370,17 +513,22 @@ public class Controller
             
             IterationInformation information = new IterationInformation( );
             
-            AlphaTable alphaTable = new AlphaTable( this.pheromoneTable, AlgorithmParameters.ALPHA );
+            alphaTable.refresh( this.alpha );
 
             // now begin the classic ant colony optimisation loop
             
             generateSolutions( i, alphaTable, freezeList );
             
-            if( replacementElitism ) { elitistInsert( ); }
+            if( replacementElitism || islands != null ) { elitistInsert( ); }
             
             daemonActions( );
             
-            pheromoneUpdate( AlgorithmParameters.MU, AlgorithmParameters.RHO, weights );
+            if( fitnessCache != null )
+            {
+                cacheHitRates[ i ] = fitnessCache.getHitRate( );
+            }
+            
+            pheromoneUpdate( this.mu, this.rho, weights );
             
             if( mode == Mode.interactive )
             {
@@ -447,25 +595,78 @@ public class Controller
                     this.bestSoFarEleganceNAC;
                 batchResults.bestEleganceModularityOverRuns[ runNumber ][ i ] =
                     this.bestSoFarEleganceModularity;
+                batchResults.fitnessCacheHitRatesOverRuns[ runNumber ][ i ] =
+                    this.cacheHitRates[ i ];
+            }
+            
+            iterationsDone = i + 1;
+            
+            // restart, or give up, when the search stagnates
+            if( AlgorithmParameters.stagnationAction != AlgorithmParameters.StagnationAction.none )
+            {
+                bestInRun[ 0 ] = Math.min( bestInRun[ 0 ], this.bestSoFarCBO );
+                bestInRun[ 1 ] = Math.min( bestInRun[ 1 ], this.bestSoFarEleganceNAC );
+                bestInRun[ 2 ] = Math.min( bestInRun[ 2 ], this.bestSoFarEleganceATMR );
+                
+                if( iterationsDone % AlgorithmParameters.STAGNATION_CHECK_INTERVAL == 0 &&
+                    hasStagnated( bestInRun, bestAtLastCheck ) == true )
+                {
+                    if( AlgorithmParameters.stagnationAction == 
+                        AlgorithmParameters.StagnationAction.restart )
+                    {
+                        pheromoneTable.reinitialise( );
+                        PheromoneOperators.warmStart( 
+                            pheromoneTable, warmStartPaths, AlgorithmParameters.WARM_START_STRENGTH );
+                        restarts++;
+                    }
+                    else
+                    {
+                        halted = true;
+                    }
+                }
             }
                 
             // make ready for next iteration
             if( replacementElitism ) { updateEliteArchive( ); }
+            
+            // exchange elite paths with other colonies
+            if( islands != null && iterationsDone % islands.getMigrationInterval( ) == 0 )
+            {
+                migrate( );
+            }
+            
             clearEnvironment( ); 
 
         }   // end for each iteration
+        
+        shutdownConstructionPool( );
 
         if( mode == Mode.interactive )
         {
     //        interactiveResults.showRawResults( );
             interactiveResults.writeFinalResultsToFile( );
+            
+            // any later run starts from the archive
+            for( EleganceDesign design : archive )
+            {
+                addWarmStart( design );
+            }
         }
         else    // must be in batch mode
         {
-            double average = myUtils.Utility.average( this.iterationRunTimes );
+            // over the iterations done, if stopped early
+            double average = myUtils.Utility.average( 
+                Arrays.copyOf( this.iterationRunTimes, iterationsDone ) );
             long temp = Math.round( average );
             this.averageRunTimes[ runNumber ] = temp;
             
+            batchResults.restartsOverRuns[ runNumber ] = restarts;
+            
+            if( iterationsDone < NUMBER_OF_ITERATIONS )
+            {
+                batchResults.recordStop( runNumber, iterationsDone );
+            }
+            
             // 19 September 2012 - to assess front diversity
 //            doMultiObjectiveValues( freezeList );
         }
@@ -476,6 +677,54 @@ public class Controller
         System.out.println( " run number " + runNumber + " done" );
     }
     
+    /**
+     * seed the pheromone table of each following run with a path,
+     * e.g. saved from an earlier session
+     * @param path
+     */
+    public void addWarmStart( Path path )
+    {
+        assert path != null;
+        warmStartPaths.add( path.getNodeNumbers( ).clone( ) );
+    }
+    
+    /**
+     * seed the pheromone table of each following run with a design,
+     * e.g. one the designer has archived. The elements of its classes 
+     * carry path node numbers, as in the designs displayed from paths.
+     * @param design
+     */
+    public void addWarmStart( SoftwareDesign design )
+    {
+        assert design != null;
+        assert design.getNumberOfClasses( ) <= numberOfClasses;
+        
+        final int[ ] nodes = new int[ layout.getPathLength( ) ];
+        int size = 0;
+        int endOfClass = layout.getFirstEndOfClass( );
+        
+        nodes[ size++ ] = NodeLayout.NEST;
+        
+        for( CLSClass c : design.getClassList( ) )
+        {
+            for( Method m : c.getMethodList( ) )
+            {
+                assert layout.isMethod( m.getNumber( ) );
+                nodes[ size++ ] = m.getNumber( );
+            }
+            
+            for( Attribute a : c.getAttributeList( ) )
+            {
+                assert layout.isAttribute( a.getNumber( ) );
+                nodes[ size++ ] = a.getNumber( );
+            }
+            
+            nodes[ size++ ] = endOfClass++;
+        }
+        
+        warmStartPaths.add( Arrays.copyOf( nodes, size ) );
+    }
+    
     /**
      * for use in batch mode only
      * after the iterations are complete, use the pheromone
@@ -487,7 +736,7 @@ public class Controller
     private void doMultiObjectiveValues( List< CLSClass > freezeList )
     {
         
-        AlphaTable at = new AlphaTable( this.pheromoneTable, AlgorithmParameters.ALPHA );
+        AlphaTable at = new AlphaTable( this.pheromoneTable, this.alpha );
         generateSolutions( 0, at, freezeList );
         // get the use table in readiness
         SortedMap< String, List< CLSDatum > > useTable =
@@ -525,10 +774,45 @@ public class Controller
         
         int retries = 0;
         int attemptTotal = 0;
+        
+        // create (or reset) all the ants first, so 
+        // that their paths can be constructed either one after another
+        // or concurrently on the construction pool
+        if( antPool == null )
+        {
+            antPool = new Ant[ NUMBER_OF_ANTS ];
+            antAttempts = new int[ NUMBER_OF_ANTS ];
+        }
+        
+        Ant[ ] ants = antPool;
+        int[ ] attempts = antAttempts;
+        
+        // the frozen classes and the choice information
+        // are compiled once, for all the ants
+        FrozenElements frozen = new FrozenElements( layout, freezeList );
+        
+        // leave the frozen classes out of the 
+        // pheromone table, so each freeze makes iterations cheaper
+        if( AlgorithmParameters.reduceFrozenClasses == true && 
+            this.pheromoneTable.reduceTo( frozen ) == true )
+        {
+            alphaTable.refresh( this.alpha );
+        }
+        if( candidateLists != null )
+        {
+            candidateLists.refresh( alphaTable );
+        }
+        
+        ChoiceInformation choiceInformation = 
+            new ChoiceInformation( alphaTable, layout, candidateLists );
+        
+        // every ant draws from its own stream, which depends only on
+        // the run, the iteration and the ant, never on the thread
+        RandomStream iterationRandom = runRandom.derive( iterationCounter );
                 
         for( int i = 0; i < NUMBER_OF_ANTS; i++ )
         {
-            Ant ant = null;
+            Ant ant = ants[ i ];
             
 //            if( AlgorithmParameters.heuristics == AlgorithmParameters.HEURISTICS_OFF )
 //            {
@@ -594,49 +878,62 @@ public class Controller
 //                assert true : "impossible heuristics!";
 //            }
 
-            ant = new HeuristicAnt2( 
-                     amList, numberOfClasses, alphaTable, freezeList, 
-                     AlgorithmParameters.constraintHandling,
-                     this.problemController.getUseMatrix( ) );
+            if( ant == null )
+            {
+                ant = new HeuristicAnt2( 
+                         layout, choiceInformation, frozen, 
+                         AlgorithmParameters.constraintHandling,
+                         this.problemController.getUseMatrix( ) );
+                
+                // each ant has its own evaluator
+                if( AlgorithmParameters.incrementalFitness == true )
+                {
+                    ant.setFitnessEvaluator( new FitnessEvaluator( problemController ) );
+                }
+            }
+            else
+            {
+                ant.reset( choiceInformation, frozen, AlgorithmParameters.constraintHandling );
+            }
 
             assert ant != null; 
-            int attempts = 0;
-             
-            if( AlgorithmParameters.constraintHandling == false )
+            ant.setRandomStream( iterationRandom.derive( i ) );
+            ants[ i ] = ant;
+        }
+        
+        if( AlgorithmParameters.parallelConstruction == true )
+        {
+            constructSolutionsInParallel( ants, attempts );
+        }
+        else
+        {
+            for( int i = 0; i < NUMBER_OF_ANTS; i++ )
             {
-                // each ant then generates a complete solution (path),
-                // and adds it to the colony
-                ant.generateSolution( );
-                colony.add( ant.getPath( ) );
+                attempts[ i ] = constructSolution( ants[ i ] );
             }
-            else // we are handling constraints
+        }
+        
+        if( AlgorithmParameters.localPheromoneUpdate == true )
+        {
+            this.pheromoneTable.endLocalUpdates( );
+        }
+        
+        // the paths are always added to the colony in ant order,
+        // whichever way they were constructed
+        for( int i = 0; i < NUMBER_OF_ANTS; i++ )
+        {
+            colony.add( ants[ i ].getPath( ) );
+            
+            if( attempts[ i ] > 0 )
             {
-                // 28 May 2012 - experiment into constraint handling
-                // see if production of only valid solutions
-                // - is possible
-                // - and if so, how many attempts?
-                
-                ant.generateSolution( );
-                
-                while( ant.isValidPath( ) == false && attempts < MAXIMUM_ATTEMPTS )
-                {
-                    ant.generateSolution( );
-                    attempts++;
-                }
-                if( attempts > 0 )
-                {
-                    retries++;
-                }
-                colony.add( ant.getPath( ) );
-//                System.out.println( "number of attempts is: " + attempts );
-                
+                retries++;
             }
-           
-            attemptTotal += attempts;
+            
+            attemptTotal += attempts[ i ];
             
             // and then each ant generates partial solutions
             // from the immediately previously constructed solution path
-//            ant.generatePartialSolutions( );
+//            ants[ i ].generatePartialSolutions( );
         }
         
         numberOfRetries[ iterationCounter ] = retries;
@@ -646,6 +943,217 @@ public class Controller
         }
     }
     
+    /**
+     * an ant constructs its solution path
+     * @param ant
+     * @return number of further attempts needed to produce a valid path
+     */
+    private int constructSolution( Ant ant )
+    {
+        assert ant != null;
+        int attempts = 0;
+        
+        if( AlgorithmParameters.constraintHandling == false )
+        {
+            // each ant then generates a complete solution (path)
+            ant.generateSolution( );
+        }
+        else // we are handling constraints
+        {
+            // 28 May 2012 - experiment into constraint handling
+            // see if production of only valid solutions
+            // - is possible
+            // - and if so, how many attempts?
+
+            ant.generateSolution( );
+
+            while( ant.isValidPath( ) == false && attempts < MAXIMUM_ATTEMPTS )
+            {
+                ant.generateSolution( );
+                attempts++;
+            }
+//            System.out.println( "number of attempts is: " + attempts );
+        }
+        
+        return attempts;
+    }
+    
+    /**
+     * the ants construct their solution paths concurrently.
+     * Each ant only reads the shared alpha table and freeze list,
+     * so no locking is needed while the paths are built.
+     * @param ants
+     * @param attempts, filled in for each ant in ant order
+     */
+    private void constructSolutionsInParallel( final Ant[ ] ants, int[ ] attempts )
+    {
+        assert ants != null;
+        assert attempts != null;
+        assert attempts.length == ants.length;
+        
+        if( constructionPool == null )
+        {
+            constructionPool = createConstructionPool( numberOfThreads );
+        }
+        
+        List< Future< Integer > > futures = new ArrayList< >( ants.length );
+        
+        for( int i = 0; i < ants.length; i++ )
+        {
+            final Ant ant = ants[ i ];
+            
+            futures.add( constructionPool.submit( new Callable< Integer >( )
+            {
+                @Override
+                public Integer call( )
+                {
+                    return constructSolution( ant );
+                }
+            } ) );
+        }
+        
+        for( int i = 0; i < ants.length; i++ )
+        {
+            attempts[ i ] = waitFor( futures.get( i ) );
+        }
+    }
+    
+    /**
+     * wait for a construction task to complete
+     * @param future of the task
+     * @return number of attempts made by the ant
+     */
+    private int waitFor( Future< Integer > future )
+    {
+        try
+        {
+            return future.get( );
+        }
+        catch( InterruptedException ex )
+        {
+            Thread.currentThread( ).interrupt( );
+            throw new IllegalStateException( "construction interrupted", ex );
+        }
+        catch( ExecutionException ex )
+        {
+            // let assertion errors from the ant reach the caller as they are
+            Throwable cause = ex.getCause( );
+            if( cause instanceof Error )
+            {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException( "construction failed", cause );
+        }
+    }
+    
+    /**
+     * @param path of the colony
+     * @return false if the ant that built the path has already 
+     * evaluated it, as it went, true otherwise
+     */
+    private boolean needsEvaluation( Path path )
+    {
+        return AlgorithmParameters.incrementalFitness == false || 
+            path.isEvaluated( ) == false;
+    }
+    
+    /**
+     * evaluate the paths of the colony concurrently, in contiguous 
+     * shares, one for each worker thread, each with its own evaluator
+     */
+    private void evaluateColonyInParallel( )
+    {
+        if( constructionPool == null )
+        {
+            constructionPool = createConstructionPool( numberOfThreads );
+        }
+        
+        final int numberOfShares = numberOfThreads;
+        
+        if( shareEvaluators == null )
+        {
+            shareEvaluators = new FitnessEvaluator[ numberOfShares ];
+            
+            for( int k = 0; k < numberOfShares; k++ )
+            {
+                shareEvaluators[ k ] = new FitnessEvaluator( problemController, fitnessCache );
+            }
+        }
+        
+        final int size = colony.size( );
+        List< Future< Integer > > futures = new ArrayList< >( numberOfShares );
+        
+        for( int k = 0; k < numberOfShares; k++ )
+        {
+            final FitnessEvaluator evaluator = shareEvaluators[ k ];
+            final int from = (int) ( (long) size * k / numberOfShares );
+            final int to = (int) ( (long) size * ( k + 1 ) / numberOfShares );
+            
+            futures.add( constructionPool.submit( new Callable< Integer >( )
+            {
+                @Override
+                public Integer call( )
+                {
+                    for( int i = from; i < to; i++ )
+                    {
+                        if( needsEvaluation( colony.get( i ) ) == true )
+                        {
+                            evaluator.evaluate( colony.get( i ) );
+                        }
+                    }
+                    
+                    return to - from;
+                }
+            } ) );
+        }
+        
+        int evaluated = 0;
+        
+        for( Future< Integer > future : futures )
+        {
+            evaluated += waitFor( future );
+        }
+        
+        assert evaluated == size;
+    }
+    
+    /**
+     * create the pool of worker threads for parallel construction.
+     * The threads are daemons so an unfinished run can't keep
+     * the virtual machine alive.
+     * @param number of threads
+     * @return the construction pool
+     */
+    private static ExecutorService createConstructionPool( int numberOfThreads )
+    {
+        assert numberOfThreads > 0;
+        
+        return Executors.newFixedThreadPool( numberOfThreads, new ThreadFactory( )
+        {
+            private int counter = 0;
+            
+            @Override
+            public synchronized Thread newThread( Runnable runnable )
+            {
+                Thread thread = new Thread( runnable, "ant-construction-" + counter++ );
+                thread.setDaemon( true );
+                return thread;
+            }
+        } );
+    }
+    
+    /**
+     * shut down the construction pool, if one was created
+     */
+    private void shutdownConstructionPool( )
+    {
+        if( constructionPool != null )
+        {
+            constructionPool.shutdown( );
+            constructionPool = null;
+        }
+    }
+    
     /**
      * Daemon actions "are used to bias the search from a
      * non-local perspective" (Wikipedia)
@@ -678,11 +1186,33 @@ public class Controller
         assert colony.size( ) == AlgorithmParameters.NUMBER_OF_ANTS :
             "environment size is: " + colony.size( );
 
-        // for each path in the colony
-        Iterator< Path > it = colony.iterator( ); 
+        if( fitnessCache != null )
+        {
+            fitnessCache.resetCounts( );
+        }
+        
+        // 3 December 2012 calculate fitness from the path
+        // calculates CBO, NAC and ATMTR in one go!
+        // without allocation, and then
+        // reduce in colony order, however the paths were evaluated
+        if( AlgorithmParameters.parallelEvaluation == true )
+        {
+            evaluateColonyInParallel( );
+        }
+        else
+        {
+            for( Path path : colony )
+            {
+                if( needsEvaluation( path ) == true )
+                {
+                    fitnessEvaluator.evaluate( path );
+                }
+            }
+        }
+        
         int counter = 0;
         
-        // get the path, and determine fitness etc.
+        // get the path, and determine best so far etc.
         for( Path path : colony )
         {
 //            path.showRawResults( );
@@ -692,11 +1222,6 @@ public class Controller
 //            DaemonOperators.calculateDesignSolutionPathFitness( 
 //                path, useTable );
             
-            // 3 December 2012 calculate fitness from the path
-            // calculates CBO, NAC and ATMTR in one go!
-            DaemonOperators.calculateDesignSolutionPathFitness(
-                path, problemController );
-            
             // keep running total for iteration average
             double externalCoupling = path.getCBO( );
             runningTotalCBO += externalCoupling; 
@@ -810,7 +1335,8 @@ public class Controller
             weights, 
             bestInColonyCBO,
             bestInColonyNAC,
-            bestInColonyATMR );
+            bestInColonyATMR,
+            runRandom );
 //        pheromoneTable.showRawResults( );
     }
 
@@ -857,7 +1383,7 @@ public class Controller
         
         while( this.eliteArchive.empty( ) == false ) // handle first iteration where eilte archive is empty
         {
-            int randomIndex = myUtils.Utility.getRandomInRange( 0, size - 1 );
+            int randomIndex = myUtils.Utility.getRandomInRange( runRandom, 0, size - 1 );
             
             Path elitePath = this.eliteArchive.pop( ); // pop the element in the archive
         
@@ -966,6 +1492,103 @@ public class Controller
     }
     
     
+    /**
+     * pass copies of the elite paths of the colony to the next colony 
+     * of the island model, and take those of the previous colony into
+     * the elite archive, for insertion at the next iteration
+     */
+    private void migrate( )
+    {
+        assert islands != null;
+        
+        if( replacementElitism == false )
+        {
+            // the archive holds only the paths that arrive
+            updateEliteArchive( );
+        }
+        
+        List< int[ ] > arrivals = islands.migrate( 
+            islandNumber, new ArrayList< >( this.eliteArchive ) );
+        
+        if( replacementElitism == false )
+        {
+            this.eliteArchive.clear( );
+        }
+        
+        for( int[ ] nodes : arrivals )
+        {
+            this.eliteArchive.push( new Path( new DesignPathRole( ), layout, nodes ) );
+        }
+    }
+    
+    /**
+     * @return hit rate of the fitness cache at each iteration of the 
+     * last run, all zero if there is no cache
+     */
+    public double[ ] getCacheHitRates( )
+    {
+        return cacheHitRates;
+    }
+    
+    /**
+     * @return name of the file the pheromone table is mapped to, where 
+     * other processes can read it with PheromoneTable.readMapped, 
+     * or null if the table is not mapped
+     */
+    public String getMappedPheromoneFile( )
+    {
+        return mappedPheromoneFile;
+    }
+    
+    /**
+     * @return the pheromone table at the end of the last run
+     */
+    PheromoneTable getPheromoneTable( )
+    {
+        return pheromoneTable;
+    }
+    
+    /**
+     * join an island model of several colonies, with a share of the
+     * worker threads, and results files of its own
+     * @param the island model
+     * @param number of this colony in the model
+     * @param number of worker threads for this colony
+     */
+    void joinIslands( IslandController islands, int islandNumber, int numberOfThreads )
+    {
+        assert islands != null;
+        assert islandNumber >= 0;
+        assert numberOfThreads > 0;
+        assert constructionPool == null : "too late to share out the threads";
+        
+        this.islands = islands;
+        this.islandNumber = islandNumber;
+        this.numberOfThreads = numberOfThreads;
+        
+        if( batchResults != null )
+        {
+            batchResults.setFileNamePrefix( "Island" + ( islandNumber + 1 ) + "-" );
+        }
+    }
+    
+    /**
+     * set the parameters of this colony, e.g. to differ between islands
+     * @param alpha
+     * @param mu
+     * @param rho
+     */
+    public void setColonyParameters( double alpha, double mu, double rho )
+    {
+        assert alpha >= 0.0;
+        assert mu >= 0.0;
+        assert rho >= 0.0 && rho <= 1.0;
+        
+        this.alpha = alpha;
+        this.mu = mu;
+        this.rho = rho;
+    }
+    
     /**
      * clear the colony of all path solutions, 
      * both complete and partial
@@ -1066,7 +1689,7 @@ public class Controller
             {
                 int numberOfPaths = list.size( );
                 assert numberOfPaths > 0;
-                final int randomSelection = Utility.getRandomInRange( 1, numberOfPaths );
+                final int randomSelection = Utility.getRandomInRange( runRandom, 1, numberOfPaths );
                 assert randomSelection <= numberOfPaths;
                 path = list.get( randomSelection - 1 );
                 done = true;
@@ -1217,6 +1840,38 @@ public class Controller
          System.out.println( "weight for ATMR is: " + df.format( weights.weightATMR ) );
     }
     
+    /**
+     * check for stagnation, i.e. the pheromone has converged on a few 
+     * paths, and the best values of the run have not improved since
+     * the last check
+     * @param best CBO, NAC and ATMR of the run so far
+     * @param best CBO, NAC and ATMR at the last check, brought up to date
+     * @return true if the search has stagnated
+     */
+    private boolean hasStagnated( double[ ] bestInRun, double[ ] bestAtLastCheck )
+    {
+        assert bestInRun != null;
+        assert bestAtLastCheck != null;
+        assert bestInRun.length == bestAtLastCheck.length;
+        
+        boolean improved = false;
+        
+        for( int k = 0; k < bestInRun.length; k++ )
+        {
+            if( bestInRun[ k ] < bestAtLastCheck[ k ] )
+            {
+                improved = true;
+                bestAtLastCheck[ k ] = bestInRun[ k ];
+            }
+        }
+        
+        final double branchingFactor = PheromoneOperators.calculateBranchingFactor( 
+            pheromoneTable, AlgorithmParameters.STAGNATION_LAMBDA );
+        
+        return improved == false && 
+            branchingFactor <= AlgorithmParameters.STAGNATION_BRANCHING_FACTOR;
+    }
+    
     /**
      * 31 August 2012
      * in batch mode, write the final results to file
@@ -1239,6 +1894,16 @@ public class Controller
         
         // 23 July 2013
         batchResults.writeFinalHeuristicResults( Parameters.outputFilePath );
+        
+        if( AlgorithmParameters.stagnationAction != AlgorithmParameters.StagnationAction.none )
+        {
+            batchResults.writeStagnationResults( Parameters.outputFilePath );
+        }
+        
+        if( AlgorithmParameters.FITNESS_CACHE_SIZE > 0 )
+        {
+            batchResults.writeCacheHitRates( Parameters.outputFilePath );
+        }
     }
         
 }   // end class
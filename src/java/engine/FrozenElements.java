@@ -0,0 +1,123 @@
+/*
+ * FrozenElements.java
+ * 18 October 2026
+ */
+
+package engine;
+
+import java.util.List;
+import softwareDesign.CLSClass;
+
+/**
+ * The classes that the user elects to "freeze", compiled once per
+ * iteration into a bitmap of the frozen node numbers and the prefix
+ * that every path starts with after the nest. All the ants of an
+ * iteration share the same instance, which is not changed after
+ * construction.
+ *
+ * Frozen classes use up the first end of class markers, so the
+ * prefix for F frozen classes ends with end of class A + M + F.
+ *
+ * @author Christopher Simons
+ */
+
+public class FrozenElements
+{
+    /** one bit for each node number, set if the node is frozen */
+    private final long[ ] bitmap;
+
+    /** frozen elements, class by class, each class closed by an end of class */
+    private final int[ ] prefix;
+
+    /** number of frozen attributes and methods */
+    private final int numberOfElements;
+
+    /** number of frozen classes */
+    private final int numberOfClasses;
+
+    /**
+     * constructor
+     * @param numbering of the nodes of a path
+     * @param list of classes that user elects to "freeze"
+     */
+    public FrozenElements( NodeLayout layout, List< CLSClass > freezeList )
+    {
+        assert layout != null;
+        assert freezeList != null;
+        assert freezeList.size( ) < layout.getNumberOfClasses( );
+
+        bitmap = new long[ ( layout.getPathLength( ) + 63 ) >>> 6 ];
+        numberOfClasses = freezeList.size( );
+
+        int elements = 0;
+
+        for( CLSClass c : freezeList )
+        {
+            elements += c.getMethodList( ).size( ) + c.getAttributeList( ).size( );
+        }
+
+        numberOfElements = elements;
+        prefix = new int[ numberOfElements + numberOfClasses ];
+
+        // the elements of a frozen class come from a displayed path,
+        // so they already carry path node numbers
+        int size = 0;
+        int endOfClass = layout.getFirstEndOfClass( );
+
+        for( CLSClass c : freezeList )
+        {
+            for( Method m : c.getMethodList( ) )
+            {
+                assert layout.isMethod( m.getNumber( ) );
+                prefix[ size++ ] = m.getNumber( );
+                setFrozen( m.getNumber( ) );
+            }
+
+            for( Attribute a : c.getAttributeList( ) )
+            {
+                assert layout.isAttribute( a.getNumber( ) );
+                prefix[ size++ ] = a.getNumber( );
+                setFrozen( a.getNumber( ) );
+            }
+
+            prefix[ size++ ] = endOfClass++;
+        }
+
+        assert size == prefix.length;
+    }
+
+    private void setFrozen( int number )
+    {
+        bitmap[ number >>> 6 ] |= 1L << number;
+    }
+
+    /**
+     * @param node number
+     * @return true if the node belongs to a frozen class
+     */
+    public boolean isFrozen( int number )
+    {
+        return ( bitmap[ number >>> 6 ] & ( 1L << number ) ) != 0L;
+    }
+
+    /**
+     * @return the frozen prefix of every path, shared, not to be changed
+     */
+    public int[ ] getPrefix( )
+    {
+        return prefix;
+    }
+
+    public int getNumberOfElements( )
+    {
+        return numberOfElements;
+    }
+
+    public int getNumberOfClasses( )
+    {
+        return numberOfClasses;
+    }
+
+}   // end class
+
+//------- end file ----------------------------------------
@@ -0,0 +1,250 @@
+/*
+ * IslandController.java
+ * 18 October 2026
+ */
+
+package engine;
+
+import config.AlgorithmParameters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Phaser;
+import problem.ProblemController;
+
+/**
+ * Island model of ant colony optimisation, in which several colonies
+ * search the same design problem at once, each in its own thread with
+ * its own pheromone table, and possibly its own alpha, mu and rho.
+ *
+ * Every so many iterations, the colonies meet and each passes copies
+ * of its elite paths to the next colony round a ring; the paths that
+ * arrive join the elite archive of the colony, and so are inserted
+ * into its colony at the next iteration.
+ *
+ * A colony that finishes early, e.g. on stagnation, leaves the ring,
+ * and the others carry on exchanging among themselves.
+ *
+ * The worker threads for parallel construction and evaluation are shared
+ * out between the colonies, so that all the colonies together keep no
+ * more threads busy than a single colony would. Each colony writes its
+ * results to files of its own, named for the colony, e.g. 
+ * "Island1-HeuristicResults.dat".
+ *
+ * @author Christopher Simons
+ */
+
+public class IslandController
+{
+    /** the colonies */
+    private final Controller[ ] islands;
+
+    /** number of iterations between migrations */
+    private final int migrationInterval;
+
+    /**
+     * the meeting point, with two phases for each migration,
+     * one to leave elite paths and one to collect them
+     */
+    private Phaser phaser;
+
+    /** elite paths left by each colony, as node numbers */
+    private final List< List< int[ ] > > emigrants;
+
+    /** number of migrations each colony has left elite paths for */
+    private final int[ ] migrations;
+
+    /**
+     * constructor, each colony in batch mode
+     * @param reference to problem controller
+     * @param number of colonies
+     * @param number of iterations between migrations
+     */
+    public IslandController(
+        ProblemController problemController, int numberOfIslands, int migrationInterval )
+    {
+        assert problemController != null;
+        assert numberOfIslands > 0;
+        assert migrationInterval > 0;
+
+        this.migrationInterval = migrationInterval;
+
+        islands = new Controller[ numberOfIslands ];
+        emigrants = new ArrayList< >( );
+        migrations = new int[ numberOfIslands ];
+
+        // share the worker threads out between the colonies
+        final int threadsPerIsland = 
+            Math.max( 1, AlgorithmParameters.NUMBER_OF_THREADS / numberOfIslands );
+        
+        for( int i = 0; i < numberOfIslands; i++ )
+        {
+            islands[ i ] = new Controller( problemController, Controller.Mode.batch );
+            islands[ i ].joinIslands( this, i, threadsPerIsland );
+            emigrants.add( new ArrayList< int[ ] >( ) );
+        }
+    }
+
+    /**
+     * constructor, taking the number of colonies and
+     * the migration interval from the algorithm parameters
+     * @param reference to problem controller
+     */
+    public IslandController( ProblemController problemController )
+    {
+        this( problemController,
+              AlgorithmParameters.NUMBER_OF_ISLANDS,
+              AlgorithmParameters.MIGRATION_INTERVAL );
+    }
+
+    /**
+     * @param number of the colony
+     * @return the controller of the colony
+     */
+    public Controller getIsland( int island )
+    {
+        assert island >= 0 && island < islands.length;
+        return islands[ island ];
+    }
+
+    /**
+     * @return number of colonies
+     */
+    public int getNumberOfIslands( )
+    {
+        return islands.length;
+    }
+
+    /**
+     * @return number of iterations between migrations
+     */
+    public int getMigrationInterval( )
+    {
+        return migrationInterval;
+    }
+
+    /**
+     * run every colony once, in parallel, and wait for all to finish
+     * @param run number
+     */
+    public void run( final int runNumber )
+    {
+        assert runNumber >= 0;
+
+        phaser = new Phaser( islands.length );
+
+        for( int i = 0; i < islands.length; i++ )
+        {
+            emigrants.get( i ).clear( );
+            migrations[ i ] = 0;
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool( islands.length );
+        List< Future< ? > > futures = new ArrayList< >( );
+
+        for( final Controller island : islands )
+        {
+            futures.add( pool.submit( new Runnable( )
+            {
+                @Override
+                public void run( )
+                {
+                    try
+                    {
+                        island.run( runNumber, null );
+                    }
+                    finally
+                    {
+                        // the others must not wait for this colony
+                        phaser.arriveAndDeregister( );
+                    }
+                }
+            } ) );
+        }
+
+        try
+        {
+            for( Future< ? > future : futures )
+            {
+                future.get( );
+            }
+        }
+        catch( InterruptedException ex )
+        {
+            Thread.currentThread( ).interrupt( );
+            throw new IllegalStateException( "island run interrupted", ex );
+        }
+        catch( ExecutionException ex )
+        {
+            throw new IllegalStateException( "island run failed", ex.getCause( ) );
+        }
+        finally
+        {
+            pool.shutdown( );
+        }
+    }
+
+    /**
+     * exchange elite paths with the other colonies, waiting for every
+     * colony still running to arrive
+     * @param number of the colony
+     * @param elite paths of the colony
+     * @return elite paths of the previous colony round the ring that
+     * is still running, as node numbers, or an empty list if none
+     */
+    List< int[ ] > migrate( int island, List< Path > elites )
+    {
+        assert island >= 0 && island < islands.length;
+        assert elites != null;
+
+        final List< int[ ] > left = emigrants.get( island );
+        left.clear( );
+
+        for( Path path : elites )
+        {
+            left.add( path.getNodeNumbers( ).clone( ) );
+        }
+
+        migrations[ island ]++;
+        final int migration = migrations[ island ];
+
+        // wait for every colony to leave its paths
+        phaser.arriveAndAwaitAdvance( );
+
+        List< int[ ] > result = new ArrayList< >( );
+
+        for( int k = 1; k < islands.length; k++ )
+        {
+            final int previous = ( island - k + islands.length ) % islands.length;
+
+            // a colony that has finished leaves no paths for this migration
+            if( migrations[ previous ] == migration )
+            {
+                result.addAll( emigrants.get( previous ) );
+                break;
+            }
+        }
+
+        // wait for every colony to collect, before any leaves paths again
+        phaser.arriveAndAwaitAdvance( );
+
+        return result;
+    }
+
+    /**
+     * in batch mode, write the results of every colony to file
+     */
+    public void writeBatchResultsToFile( )
+    {
+        for( Controller island : islands )
+        {
+            island.writeBatchResultsToFile( );
+        }
+    }
+
+}   // end class
+
+//------- end file ----------------------------------------
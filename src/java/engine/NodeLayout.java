@@ -0,0 +1,205 @@
+/*
+ * NodeLayout.java
+ * 18 October 2026
+ */
+
+package engine;
+
+import java.util.List;
+
+/**
+ * The numbering of the nodes of a solution path, shared by all the
+ * paths of a design problem. A path is then simply an array of node
+ * numbers, and the kind of each node follows from its number:
+ *
+ *      0                                   the nest
+ *      1 .. A                              attributes
+ *      A + 1 .. A + M                      methods
+ *      A + M + 1 .. A + M + C              end of class markers
+ *
+ * where A, M and C are the numbers of attributes, methods and classes.
+ * These are the same numbers used to index the pheromone table, i.e.
+ * the number of an element in the attribute and method list plus one
+ * for the nest.
+ *
+ * @author Christopher Simons
+ */
+
+public class NodeLayout
+{
+    public enum Kind { nest, attribute, method, endOfClass }
+
+    /** number of the nest, always the first node of a path */
+    public static final int NEST = 0;
+
+    private static final String NEST_NAME = "nest";
+
+    private final int numberOfAttributes;
+
+    private final int numberOfMethods;
+
+    private final int numberOfClasses;
+
+    /** names of the attributes and methods, by node number */
+    private final String[ ] names;
+
+    /**
+     * constructor
+     * @param attribute and method list, attributes first
+     * @param number of attributes in the list
+     * @param number of classes
+     */
+    public NodeLayout(
+        List< Node > amList, int numberOfAttributes, int numberOfClasses )
+    {
+        assert amList != null;
+        assert amList.isEmpty( ) == false;
+        assert numberOfAttributes > 0;
+        assert numberOfAttributes < amList.size( );
+        assert numberOfClasses > 0;
+
+        this.numberOfAttributes = numberOfAttributes;
+        this.numberOfMethods = amList.size( ) - numberOfAttributes;
+        this.numberOfClasses = numberOfClasses;
+
+        names = new String[ amList.size( ) + 1 ];
+        names[ NEST ] = NEST_NAME;
+
+        for( Node n : amList )
+        {
+            final int number = n.getNumber( ) + 1; // plus one for the nest
+            assert number < names.length;
+            assert ( n instanceof Attribute ) == ( number <= numberOfAttributes );
+            names[ number ] = n.getName( );
+        }
+    }
+
+    public int getNumberOfAttributes( )
+    {
+        return numberOfAttributes;
+    }
+
+    public int getNumberOfMethods( )
+    {
+        return numberOfMethods;
+    }
+
+    public int getNumberOfClasses( )
+    {
+        return numberOfClasses;
+    }
+
+    /**
+     * @return number of attributes and methods
+     */
+    public int getNumberOfElements( )
+    {
+        return numberOfAttributes + numberOfMethods;
+    }
+
+    /**
+     * @return number of nodes in a complete path,
+     * which is also the size of the pheromone table
+     */
+    public int getPathLength( )
+    {
+        return numberOfAttributes + numberOfMethods + numberOfClasses + 1;
+    }
+
+    /**
+     * @return number of the first end of class marker
+     */
+    public int getFirstEndOfClass( )
+    {
+        return numberOfAttributes + numberOfMethods + 1;
+    }
+
+    /**
+     * @return number of the last end of class marker,
+     * which always closes a path
+     */
+    public int getLastEndOfClass( )
+    {
+        return numberOfAttributes + numberOfMethods + numberOfClasses;
+    }
+
+    public boolean isAttribute( int number )
+    {
+        return number > NEST && number <= numberOfAttributes;
+    }
+
+    public boolean isMethod( int number )
+    {
+        return number > numberOfAttributes &&
+               number <= numberOfAttributes + numberOfMethods;
+    }
+
+    public boolean isEndOfClass( int number )
+    {
+        return number > numberOfAttributes + numberOfMethods;
+    }
+
+    public Kind kindOf( int number )
+    {
+        assert number >= 0 && number < getPathLength( ) : "number is: " + number;
+
+        Kind result = null;
+
+        if( number == NEST )
+        {
+            result = Kind.nest;
+        }
+        else if( number <= numberOfAttributes )
+        {
+            result = Kind.attribute;
+        }
+        else if( number <= numberOfAttributes + numberOfMethods )
+        {
+            result = Kind.method;
+        }
+        else
+        {
+            result = Kind.endOfClass;
+        }
+
+        return result;
+    }
+
+    /**
+     * create a node object for a node number,
+     * for those who view a path node by node
+     * @param number
+     * @return a new Nest, Attribute, Method or EndOfClass
+     */
+    public Node createNode( int number )
+    {
+        Node result = null;
+
+        switch( kindOf( number ) )
+        {
+            case nest:
+                result = new Nest( names[ number ], number );
+                break;
+
+            case attribute:
+                result = new Attribute( names[ number ], number );
+                break;
+
+            case method:
+                result = new Method( names[ number ], number );
+                break;
+
+            case endOfClass:
+                result = new EndOfClass( Ant.END_OF_CLASS, number );
+                break;
+
+            default:
+                assert false : "impossible kind of node";
+        }
+
+        return result;
+    }
+
+}   // end class
+
+//------- end file ----------------------------------------
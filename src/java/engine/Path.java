@@ -20,21 +20,56 @@ public class Path
     /** list of components representing a path */
     private List< Node > list;
     
+    /** 
+     * the path as an array of node numbers, or null for a path 
+     * built node by node. When present, the list above is only 
+     * a view of it, created when first asked for
+     */
+    private int[ ] nodes;
+    
+    /** numbering of the nodes, for an array based path */
+    private NodeLayout layout;
+    
     private Role role;
     
     private int dominationCount;
     
+    /** have the fitness values been set? */
+    private boolean evaluated;
+    
     private int weightedDominationCount;
     
     /** constructor for a path */
     public Path( Role role )
     {
         list = new ArrayList< Node >( );
+        nodes = null;
+        layout = null;
         assert role != null;
         this.role = role;
         dominationCount = 0; 
     }
     
+    /** 
+     * constructor for a path held as an array of node numbers
+     * @param role
+     * @param layout, the numbering of the nodes
+     * @param nodes, the node numbers from nest to last end of class
+     */
+    public Path( Role role, NodeLayout layout, int[ ] nodes )
+    {
+        assert role != null;
+        assert layout != null;
+        assert nodes != null;
+        assert nodes.length > 0;
+        
+        this.role = role;
+        this.layout = layout;
+        this.nodes = nodes;
+        list = null;
+        dominationCount = 0;
+    }
+    
    
     /**
      * add a node to the path
@@ -43,6 +78,7 @@ public class Path
     public void add( Node node )
     {
         assert node != null;
+        assert nodes == null : "can't add to a path of node numbers";
         assert list != null;
         list.add( node );
     }
@@ -53,8 +89,7 @@ public class Path
      */
     public Iterator< Node > iterator( )
     {
-        assert list != null;
-        return list.iterator( ); 
+        return getList( ).iterator( ); 
     }
 
     
@@ -64,25 +99,89 @@ public class Path
      */
     public boolean isEmpty( )
     {
-        return list.isEmpty( ); 
+        return size( ) == 0; 
     }
     
     public int size( )
     {
-        return list.size( );
+        int result = 0;
+        
+        if( nodes != null )
+        {
+            result = nodes.length;
+        }
+        else
+        {
+            result = list.size( );
+        }
+        
+        return result;
     }
     
     public Node get( int index )
     {
         assert index >= 0;
-        assert index < list.size( );
+        assert index < size( );
+        
+        return getList( ).get( index );
+    }
+    
+    /**
+     * get the node numbers of the path. 
+     * The array is shared, so must not be changed.
+     * @return node numbers from the nest to the last end of class
+     */
+    public int[ ] getNodeNumbers( )
+    {
+        int[ ] result = nodes;
         
-        return list.get( index );
+        if( result == null )
+        {
+            result = new int[ list.size( ) ];
+            
+            for( int i = 0; i < result.length; i++ )
+            {
+                result[ i ] = list.get( i ).getNumber( );
+            }
+        }
+        
+        return result;
+    }
+    
+    /**
+     * @return the numbering of the nodes, or null
+     * for a path built node by node
+     */
+    public NodeLayout getLayout( )
+    {
+        return layout;
+    }
+    
+    /**
+     * get the list of nodes, creating the view of 
+     * the node numbers if this hasn't yet been done
+     * @return list of nodes
+     */
+    private List< Node > getList( )
+    {
+        if( list == null )
+        {
+            List< Node > view = new ArrayList< Node >( nodes.length );
+            
+            for( int i = 0; i < nodes.length; i++ )
+            {
+                view.add( layout.createNode( nodes[ i ] ) );
+            }
+            
+            list = view;
+        }
+        
+        return list;
     }
     
     public void show( )
     {
-        for( Node n : this.list )
+        for( Node n : getList( ) )
         {
             System.out.print( n.getNumber( ) + " " );
             System.out.print( n.getName( ) + " " );
@@ -103,6 +202,22 @@ public class Path
     }
     
     
+    /**
+     * @return true if the fitness values have been set
+     */
+    public boolean isEvaluated( )
+    {
+        return evaluated;
+    }
+    
+    /**
+     * record that the fitness values have been set
+     */
+    public void setEvaluated( )
+    {
+        evaluated = true;
+    }
+    
     public void setCBO( double CBO )
     {
         assert role.getDistinction( ) == Role.Distinction.design;
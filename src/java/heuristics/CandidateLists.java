@@ -0,0 +1,215 @@
+/*
+ * CandidateLists.java
+ * 18 October 2026
+ */
+
+package heuristics;
+
+import engine.NodeLayout;
+import pheromone.AlphaTable;
+
+/**
+ * For each node, a short list of its most promising successors, so that
+ * an ant chooses among a few candidates rather than every remaining node,
+ * and falls back to the whole working list only when the candidates of
+ * the current node are all used up.
+ *
+ * Only the use matrix relates attributes and methods, so the successors
+ * considered for an attribute are the methods that use it, for a method
+ * the attributes it uses, and for both the end of class markers. For the
+ * nest and the end of class markers, every attribute and method is
+ * considered. The considered successors are ranked by their pheromone
+ * raised to the power of alpha, afresh for each iteration.
+ *
+ * @author Christopher Simons
+ */
+
+public class CandidateLists
+{
+    /** numbering of the nodes of a path */
+    private final NodeLayout layout;
+
+    /** largest number of candidates for each node */
+    private final int length;
+
+    /** use matrix neighbours of each attribute and method, by node number */
+    private final int[ ][ ] neighbours;
+
+    /** the candidates, length for each node, best first */
+    private final int[ ] candidates;
+
+    /** number of candidates of each node */
+    private final int[ ] counts;
+
+    /** scratch, the choice information of the candidates so far */
+    private final double[ ] values;
+
+    /**
+     * constructor, the lists are empty until refreshed
+     * @param numbering of the nodes of a path
+     * @param use matrix, action by datum
+     * @param largest number of candidates for each node
+     */
+    public CandidateLists( NodeLayout layout, int[ ][ ] useMatrix, int length )
+    {
+        assert layout != null;
+        this.layout = layout;
+        assert useMatrix != null;
+        assert useMatrix.length == layout.getNumberOfMethods( );
+        assert length > 0;
+        this.length = length;
+
+        final int pathLength = layout.getPathLength( );
+        final int firstMethod = layout.getNumberOfAttributes( ) + 1;
+
+        // count, then fill, the neighbours of each node
+        final int[ ] degrees = new int[ pathLength ];
+
+        for( int i = 0; i < useMatrix.length; i++ )
+        {
+            for( int j = 0; j < useMatrix[ i ].length; j++ )
+            {
+                if( useMatrix[ i ][ j ] == 1 )
+                {
+                    degrees[ firstMethod + i ]++;
+                    degrees[ 1 + j ]++;
+                }
+            }
+        }
+
+        neighbours = new int[ pathLength ][ ];
+
+        for( int number = 0; number < pathLength; number++ )
+        {
+            neighbours[ number ] = new int[ degrees[ number ] ];
+            degrees[ number ] = 0;
+        }
+
+        for( int i = 0; i < useMatrix.length; i++ )
+        {
+            for( int j = 0; j < useMatrix[ i ].length; j++ )
+            {
+                if( useMatrix[ i ][ j ] == 1 )
+                {
+                    final int method = firstMethod + i;
+                    final int attribute = 1 + j;
+                    assert layout.isMethod( method );
+                    assert layout.isAttribute( attribute );
+
+                    neighbours[ method ][ degrees[ method ]++ ] = attribute;
+                    neighbours[ attribute ][ degrees[ attribute ]++ ] = method;
+                }
+            }
+        }
+
+        candidates = new int[ pathLength * length ];
+        counts = new int[ pathLength ];
+        values = new double[ length ];
+    }
+
+    /**
+     * rank the successors of every node afresh
+     * @param pheromone values raised to the power of alpha
+     */
+    public void refresh( AlphaTable alphaTable )
+    {
+        assert alphaTable != null;
+
+        final int pathLength = layout.getPathLength( );
+        final int firstEndOfClass = layout.getFirstEndOfClass( );
+
+        for( int current = 0; current < pathLength; current++ )
+        {
+            counts[ current ] = 0;
+
+            if( current == NodeLayout.NEST || layout.isEndOfClass( current ) )
+            {
+                for( int next = 1; next < firstEndOfClass; next++ )
+                {
+                    offer( alphaTable, current, next );
+                }
+            }
+            else
+            {
+                for( int next : neighbours[ current ] )
+                {
+                    offer( alphaTable, current, next );
+                }
+
+                for( int next = firstEndOfClass; next < pathLength; next++ )
+                {
+                    offer( alphaTable, current, next );
+                }
+            }
+        }
+    }
+
+    /**
+     * insert a successor into the candidates of a node, if it
+     * ranks among the best so far, keeping the best first
+     * @param pheromone values raised to the power of alpha
+     * @param current node
+     * @param next possible node
+     */
+    private void offer( AlphaTable alphaTable, int current, int next )
+    {
+        final double value = alphaTable.getProbabilityAt( current, next );
+        final int base = current * length;
+        int count = counts[ current ];
+
+        if( count == length && value <= values[ length - 1 ] )
+        {
+            return;
+        }
+
+        if( count < length )
+        {
+            count++;
+            counts[ current ] = count;
+        }
+
+        // ties keep the earlier successor first
+        int k = count - 1;
+
+        while( k > 0 && values[ k - 1 ] < value )
+        {
+            values[ k ] = values[ k - 1 ];
+            candidates[ base + k ] = candidates[ base + k - 1 ];
+            k--;
+        }
+
+        values[ k ] = value;
+        candidates[ base + k ] = next;
+    }
+
+    /**
+     * @return largest number of candidates for each node
+     */
+    public int getLength( )
+    {
+        return length;
+    }
+
+    /**
+     * @param current node
+     * @return number of candidates of the node
+     */
+    public int getNumberOfCandidates( int current )
+    {
+        return counts[ current ];
+    }
+
+    /**
+     * @param current node
+     * @param index of the candidate, best first
+     * @return node number of the candidate
+     */
+    public int getCandidate( int current, int index )
+    {
+        assert index >= 0 && index < counts[ current ];
+        return candidates[ current * length + index ];
+    }
+
+}   // end class
+
+//------- end file ----------------------------------------
@@ -0,0 +1,237 @@
+/*
+ * ChoiceInformation.java
+ * 18 October 2026
+ */
+
+package heuristics;
+
+import config.AlgorithmParameters;
+import engine.NodeLayout;
+import pheromone.AlphaTable;
+
+/**
+ * The choice information of an iteration, i.e. the pheromone values
+ * raised to the power of alpha, combined with the heuristic information
+ * raised to the power of beta. All the ants of an iteration share the
+ * same instance. With local pheromone update, the ants change the shared
+ * alpha table, and the pheromone table beneath it, as they construct
+ * their paths - see AlphaTable for what that allows; otherwise nothing
+ * changes until the ants have finished.
+ *
+ * The NAC heuristic applies when moving from an attribute, method or
+ * the nest to an end of class marker, and depends only on the distance
+ * of the path from the next 'ideal' place for an end of class. So the
+ * heuristic factor is tabulated once per iteration by the number of
+ * nodes selected so far, and choosing a node takes an array read and
+ * a multiplication, rather than a call to Math.pow.
+ *
+ * @author Christopher Simons
+ */
+
+public class ChoiceInformation
+{
+    /** NAC heuristic factor at the 'ideal' place for an EoC */
+    private static final double ZERO_DISTANCE_CONSTANT = 1.35;
+
+    /** NAC heuristic reduction per node of distance from the 'ideal' place */
+    private static final double DISTANCE_CONSTANT = 0.001;
+
+    /** numbering of the nodes of a path */
+    private final NodeLayout layout;
+
+    /** pheromone values raised to the power of alpha */
+    private final AlphaTable alphaTable;
+
+    /**
+     * heuristic factor for moving to an end of class marker,
+     * by number of nodes selected so far
+     */
+    private final double[ ] endOfClassFactors;
+
+    /** largest heuristic factor for moving to an end of class marker */
+    private final double maximumEndOfClassFactor;
+
+    /** most promising successors of each node, or null if not used */
+    private final CandidateLists candidateLists;
+
+    /**
+     * constructor
+     * @param pheromone values raised to the power of alpha
+     * @param numbering of the nodes of a path
+     * @param candidate lists, ranked for the iteration, or null
+     */
+    public ChoiceInformation( 
+        AlphaTable at, NodeLayout layout, CandidateLists candidateLists )
+    {
+        assert at != null;
+        this.alphaTable = at;
+        assert layout != null;
+        this.layout = layout;
+        this.candidateLists = candidateLists;
+
+        endOfClassFactors = new double[ layout.getPathLength( ) ];
+        double maximum = 1.0;
+
+        for( int nodeCounter = 0; nodeCounter < endOfClassFactors.length; nodeCounter++ )
+        {
+            double factor = 1.0;
+
+            if( AlgorithmParameters.heuristics == true )
+            {
+                factor = calculateHeuristicNAC( nodeCounter );
+            }
+
+            endOfClassFactors[ nodeCounter ] = factor;
+            maximum = Math.max( maximum, factor );
+        }
+
+        maximumEndOfClassFactor = maximum;
+    }
+
+    /**
+     * the choice information for moving from the current node to the next
+     * @param current node
+     * @param next possible node
+     * @param number of nodes selected so far
+     * @return choice information
+     */
+    public double getChoiceAt( int current, int next, int nodeCounter )
+    {
+        double result = alphaTable.getProbabilityAt( current, next );
+
+        if( layout.isEndOfClass( next ) )
+        {
+            result *= getEndOfClassFactor( current, nodeCounter );
+        }
+
+        return result;
+    }
+
+    /**
+     * @param current node
+     * @param next possible node
+     * @return pheromone value raised to the power of alpha, 
+     * without any heuristic factor
+     */
+    public double getPheromoneAt( int current, int next )
+    {
+        return alphaTable.getProbabilityAt( current, next );
+    }
+
+    /**
+     * an ACS style local update, as an ant moves from the current node
+     * to the next, evaporating towards the MMAS pheromone minimum
+     * @param current node
+     * @param next node
+     */
+    public void localUpdate( int current, int next )
+    {
+        alphaTable.localUpdate( current, next, 
+            AlgorithmParameters.LOCAL_EVAPORATION, 
+            AlgorithmParameters.MMAS_PHEROMONE_MINIMUM );
+    }
+
+    /**
+     * @return most promising successors of each node, 
+     * or null if ants choose among every remaining node
+     */
+    public CandidateLists getCandidateLists( )
+    {
+        return candidateLists;
+    }
+
+    /**
+     * the heuristic factor for moving from the current node
+     * to any end of class marker
+     * @param current node
+     * @param number of nodes selected so far
+     * @return heuristic factor
+     */
+    public double getEndOfClassFactor( int current, int nodeCounter )
+    {
+        assert nodeCounter >= 0 && nodeCounter < endOfClassFactors.length;
+
+        double result = 1.0;
+
+        // in the ideal place or not, the heuristic is not
+        // applicable when moving from one EoC to another
+        if( layout.isEndOfClass( current ) == false )
+        {
+            result = endOfClassFactors[ nodeCounter ];
+        }
+
+        return result;
+    }
+
+    /**
+     * @param next possible node
+     * @return largest choice information for moving to the
+     * node from any node
+     */
+    public double getColumnBound( int next )
+    {
+        double result = alphaTable.getColumnMaximum( next );
+
+        if( layout.isEndOfClass( next ) )
+        {
+            result *= maximumEndOfClassFactor;
+        }
+
+        return result;
+    }
+
+    /**
+     * calculate the heuristic factor for an EoC with respect to
+     * Numbers Among Classes (NAC) elegance
+     * @param nodeCounter in the outer loop count of possible nodes
+     * @return heuristic factor raised to the power of BETA_NAC
+     */
+    private static double calculateHeuristicNAC( int nodeCounter )
+    {
+        final int distance = calculateNACDistance( nodeCounter );
+        assert distance >= 0;
+        double distanceFactor = 1.0;
+
+        if( distance == 0 ) // we're at the 'ideal' place for an EoC
+        {
+            distanceFactor = ZERO_DISTANCE_CONSTANT;
+        }
+        else    // the distance is greater than zero
+        {
+            // experiment 23 July 2013
+            // not effective, causes infeasible solution tours
+            // distanceFactor = 1.0 / (double) distance;    2013
+
+            // experiment 25 July 2013
+            // try something more subtle
+            distanceFactor = 1.0 - ( distance * DISTANCE_CONSTANT );
+        }
+
+        return Math.pow( distanceFactor, AlgorithmParameters.BETA_NAC );
+    }
+
+    /**
+     * calculate the NAC distance between this node and the next 'ideal' EoC
+     * @param nodeCounter
+     * @return NAC distance
+     */
+    private static int calculateNACDistance( int nodeCounter )
+    {
+        int modulus = nodeCounter % HeuristicInformation.idealNumberOfElementsPerClass;
+        int NACDistance = 0;
+
+        if( modulus == 0 )
+        {
+            // do nothing, the NACDistance is zero
+        }
+        else
+        {
+            NACDistance = HeuristicInformation.idealNumberOfElementsPerClass - modulus;
+        }
+
+        return NACDistance;
+    }
+
+}   // end class
+
+//------- end of file -------------------------------------
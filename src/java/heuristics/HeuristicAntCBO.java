@@ -22,8 +22,6 @@ import config.AlgorithmParameters;
 import engine.*;
 import java.util.List;
 import myUtils.Utility;
-import pheromone.AlphaTable;
-import softwareDesign.CLSClass;
 
 
 public class HeuristicAntCBO extends Ant 
@@ -32,21 +30,19 @@ public class HeuristicAntCBO extends Ant
     
     /** 
      * constructor
-     * @param reference to list of attributes and methods
-     * @param number of classes
-     * @param reference to alpha table
-     * @param list of classes that user elects to "freeze"
+     * @param numbering of the nodes of a path
+     * @param reference to choice information
+     * @param classes that user elects to "freeze"
      * @param handling constraints boolean
      */
     public HeuristicAntCBO( 
-        List< Node > nodes,
-        int numberOfClasses,
-        AlphaTable at,
-        List< CLSClass > freezeList,
+        NodeLayout layout,
+        ChoiceInformation ci,
+        FrozenElements frozen,
         boolean handlingConstraints,
         int[ ][ ] useMatrix )
     {
-        super( nodes, numberOfClasses, at, freezeList, handlingConstraints );
+        super( layout, ci, frozen, handlingConstraints );
         
         assert useMatrix != null;
         this.useMatrix = useMatrix;
@@ -63,65 +59,63 @@ public class HeuristicAntCBO extends Ant
     public void generateSolution( )
     {
         // create a new local solution path though the environment  
-        Path path = new Path( new DesignPathRole( ) );
+        int[ ] nodes = new int[ super.layout.getPathLength( ) ];
+        int pathSize = 0;
         
         // create a local working list of all attributes, methods 
         // and EoC markers in the search space
-        List< Node > workingList = super.createWorkingList( );
-        final int workingListSize = workingList.size( );
+        int[ ] workingList = super.createWorkingList( );
+        int workingListSize = workingList.length;
 //        show( workingList );
         
         // the first node is always the nest
-        Node current = new Nest( "nest", 0 );
-        path.add( current );
+        int current = NodeLayout.NEST;
+        nodes[ pathSize++ ] = current;
        
-        Node next = null;
+        int next = 0;
        
         // then node by node, construct the remaining path 
         // depending on the attractiveness of each possibility
-        while( workingList.isEmpty( ) == false )
+        while( workingListSize > 0 )
         {
             // select the next node, according to attractiveness
             // influenced by the betaCBO value
-//            next = this.selectNextNode( current, workingList );
+//            next = this.selectNextNode( current, workingList, workingListSize--, pathSize - 1 );
             
             // add the next node to the solution path
-            path.add( next );
+            nodes[ pathSize++ ] = next;
             
             // and so the ant moves through the environment
             current = next;
         }
         
         // assert some invariance,
-        assert workingList.isEmpty( );
+        assert workingListSize == 0;
         
         
         // the last node is always an end of class
-        path.add( new EndOfClass( END_OF_CLASS, workingListSize + 1 ) );
+        nodes[ pathSize++ ] = super.layout.getLastEndOfClass( );
         
 //        System.out.println("path list------------------");
-//        Iterator< Node > it = path.iterator( );
-//        while( it.hasNext( ) )
+//        for( int n : nodes )
 //        {
-//            Node n = it.next( );
 //            System.out.print( "node: ");
-//            System.out.println( n.getNumber( ) + " " + n.getName( ) );
+//            System.out.println( n );
 //        }
 //       
-        final int pathSize = path.size( );
-        assert pathSize == amList.size( ) + this.numberOfClasses + 1 : 
+        assert pathSize == amListSize + this.numberOfClasses + 1 : 
             "path size is: " + pathSize + 
-            ", amlist size is " + amList.size( ) +
+            ", amlist size is " + amListSize +
             ", number of classes is " + this.numberOfClasses;
                 
         // when solution path is constructed, assign it to 
         // the current vertices instance variable 
-        super.currentPath = path;
+        super.currentPath = new Path( new DesignPathRole( ), super.layout, nodes );
                 
         // 28 May 2012 
         if( super.handlingConstraints == true )
         {
-            super.valid = checkValidity( path );
+            super.valid = checkValidity( nodes );
         }
     }
     
@@ -19,31 +19,26 @@ package heuristics;
  */
 
 import engine.*;
-import java.util.ArrayList;
 import java.util.List;
 import myUtils.Utility;
-import pheromone.AlphaTable;
-import softwareDesign.CLSClass;
 
 
 public class HeuristicAntNAC extends Ant 
 {
     /** 
      * constructor
-     * @param reference to list of attributes and methods
-     * @param number of classes
-     * @param reference to alpha table
-     * @param list of classes that user elects to "freeze"
+     * @param numbering of the nodes of a path
+     * @param reference to choice information
+     * @param classes that user elects to "freeze"
      * @param handling constraints boolean
      */
     public HeuristicAntNAC( 
-        List< Node > nodes,
-        int numberOfClasses,
-        AlphaTable at,
-        List< CLSClass > freezeList,
+        NodeLayout layout,
+        ChoiceInformation ci,
+        FrozenElements frozen,
         boolean handlingConstraints )
     {
-        super( nodes, numberOfClasses, at, freezeList, handlingConstraints );
+        super( layout, ci, frozen, handlingConstraints );
     }
     
     /**
@@ -56,14 +51,16 @@ public class HeuristicAntNAC extends Ant
         assert HeuristicInformation.idealNumberOfElementsPerClass > 0;
         
         // create a new local solution path though the environment  
-        Path path = new Path( new DesignPathRole( ) );
+        int[ ] nodes = new int[ super.layout.getPathLength( ) ];
+        int pathSize = 0;
         
         // create a local working list of all attributes and methods in the search space
-        List< Node > workingList = createWorkingList( );
+        int[ ] workingList = createWorkingList( );
+        int workingListSize = workingList.length;
         
         // the first node is always the nest
-        Node current = new Nest( "nest", 0 );
-        path.add( current );
+        int current = NodeLayout.NEST;
+        nodes[ pathSize++ ] = current;
         
         // 14 Jan 2013 pseudocode design
         // firstly, prepare the class numbers
@@ -82,93 +79,73 @@ public class HeuristicAntNAC extends Ant
         
         for( int j = 0; j < HeuristicInformation.remainderElements; j++ )
         {
-            int random = Utility.getRandomInRange( 0, super.numberOfClasses - 1 );
+            int random = Utility.getRandomInRange( super.random, 0, super.numberOfClasses - 1 );
             elements[ random ]++;
         }
         
         // secondly, allocate nodes to the solution path
-        int EOCcounter = workingList.size( ) + 1;
-        Node next;
+        int EOCcounter = super.layout.getFirstEndOfClass( );
+        int next;
         
         for( int i = 0; i < super.numberOfClasses; i++ )
         {
             for( int j = 0; j < elements[ i ]; j++ )
             {
                 // select the next node, according to attractiveness
-//                next = selectNextNode( current, workingList );
+//                next = selectNextNode( current, workingList, workingListSize--, pathSize - 1 );
 //            
 //                // add the next node to the solution path
-//                path.add( next );
+//                nodes[ pathSize++ ] = next;
 //            
 //                // and so the ant moves through the search space
 //                current = next;
             }
             
-            Node endOfClass = new EndOfClass( Ant.END_OF_CLASS, EOCcounter++ );
-            path.add( endOfClass );
+            nodes[ pathSize++ ] = EOCcounter++;
         }
         
-        assert workingList.isEmpty( );
-        assert EOCcounter == super.amList.size( )+ super.numberOfClasses + 1;
+        assert workingListSize == 0;
+        assert EOCcounter == super.layout.getLastEndOfClass( ) + 1;
         
         // after a local solution path has been constructed, assign it to 
         // the current path instance variable 
-        super.currentPath = path;
+        super.currentPath = new Path( new DesignPathRole( ), super.layout, nodes );
         
         // 28 May 2012 
         if( super.handlingConstraints == true )
         {
-            super.valid = checkValidity( path );
+            super.valid = checkValidity( nodes );
         }
     }
     
      /**
      * create a working list of path elements containing
      * all methods, all attributes, but no end of class markers
-     * @return working list of path elements
+     * @return working list of node numbers
      */
     @Override
-    protected List< Node > createWorkingList( )
+    protected int[ ] createWorkingList( )
     {
-        List< Node > workingList = new ArrayList<  >( );
-        
         // add the attributes and methods
-        assert super.amList.isEmpty( ) == false;
-        assert super.amListSize == amList.size( );
+        // (the node numbers are one more than in the amList
+        // because of the "nest")
+        assert super.amListSize > 0;
+        
+        int[ ] workingList = new int[ amListSize ];
         
-        for( Node n : amList )
+        for( int i = 0; i < amListSize; i++ )
         {
-            Node node = null;
-                        
-            if( n instanceof Attribute )
-            {
-                node = new Attribute( 
-                    n.getName( ), n.getNumber( ) + 1 );
-            }
-            else if( n instanceof Method )
-            {
-                node = new Method( 
-                    n.getName( ), n.getNumber( ) + 1 );
-            }
-            else
-            {
-                assert false: "impossible type!!!";
-            }
-            
-            assert node != null;
-            workingList.add( node );
+            final int number = i + 1;
+            assert super.layout.isAttribute( number ) || super.layout.isMethod( number ) :
+                "impossible type!!!";
+            workingList[ i ] = number;
         }
         
-        // at this point, the working list must be the 
-        // same size as the attribute and method list size
-        assert workingList.size( ) == amListSize;
-        
         // for testing
 //        System.out.println( "this is the working list" );
-//        for( Node n : workingList )
+//        for( int n : workingList )
 //        {
-//            System.out.print( n.getName( ) + " " );
-//            System.out.println( n.getNumber( ) );
+//            System.out.println( n );
 //        }
 
         return workingList;
@@ -6,6 +6,7 @@ package myGui;
 import config.AlgorithmParameters;
 import config.Parameters;
 import engine.Controller;
+import engine.IslandController;
 import problem.ProblemController;
 
 /**
@@ -164,6 +165,21 @@ public class BatchMain
 //            problemController, path );
 //        controller.go( );
         
+        // several colonies searching at once, exchanging elite paths
+        if( AlgorithmParameters.NUMBER_OF_ISLANDS > 1 )
+        {
+            IslandController islandController = new IslandController( problemController );
+            
+            for( int i = 0; i < AlgorithmParameters.NUMBER_OF_RUNS; i++ )
+            {
+                islandController.run( i );
+            }
+            
+            islandController.writeBatchResultsToFile( );
+            System.out.println( "batch island ACO complete" );
+            return;
+        }
+        
         // 17 January 2013
         Controller controller = new Controller( problemController, Controller.Mode.batch );
         
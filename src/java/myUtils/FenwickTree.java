@@ -0,0 +1,151 @@
+/*
+ * FenwickTree.java
+ * 18 October 2026
+ */
+
+package myUtils;
+
+/**
+ * A Fenwick (binary indexed) tree of non-negative weights, for
+ * "roulette wheel" selection in O( log n ) time. Weights can be
+ * removed, again in O( log n ) time, as elements are consumed.
+ *
+ * Removal subtracts from the partial sums, so over many removals
+ * the sums may drift slightly from the exact values. The tree is
+ * meant to be filled afresh for each use, e.g. for each path.
+ *
+ * @author Christopher Simons
+ */
+
+public class FenwickTree
+{
+    /** partial sums, one-based as usual for a Fenwick tree */
+    private double[ ] tree;
+
+    /** the weights themselves, zero-based */
+    private double[ ] weights;
+
+    /** number of elements in use */
+    private int size;
+
+    /** highest power of two no greater than the size */
+    private int topBit;
+
+    /**
+     * constructor
+     * @param capacity, the largest number of elements
+     */
+    public FenwickTree( int capacity )
+    {
+        assert capacity > 0;
+        tree = new double[ capacity + 1 ];
+        weights = new double[ capacity ];
+        size = 0;
+        topBit = 0;
+    }
+
+    /**
+     * fill the tree with weights in O( n ) time
+     * @param weights, all non-negative
+     * @param number of weights
+     */
+    public void fill( double[ ] w, int n )
+    {
+        assert w != null;
+        assert n > 0;
+        assert n <= weights.length;
+
+        size = n;
+        System.arraycopy( w, 0, weights, 0, n );
+        tree[ 0 ] = 0.0;
+
+        for( int i = 1; i <= n; i++ )
+        {
+            assert w[ i - 1 ] >= 0.0;
+            tree[ i ] = w[ i - 1 ];
+        }
+
+        for( int i = 1; i <= n; i++ )
+        {
+            final int parent = i + ( i & -i );
+            if( parent <= n )
+            {
+                tree[ parent ] += tree[ i ];
+            }
+        }
+
+        topBit = Integer.highestOneBit( n );
+    }
+
+    /**
+     * remove an element's weight from the tree
+     * @param index of the element
+     */
+    public void remove( int index )
+    {
+        assert index >= 0 && index < size;
+
+        final double w = weights[ index ];
+        weights[ index ] = 0.0;
+
+        for( int i = index + 1; i <= size; i += i & -i )
+        {
+            tree[ i ] -= w;
+        }
+    }
+
+    /**
+     * @param index of the element
+     * @return weight of the element, zero if removed
+     */
+    public double getWeight( int index )
+    {
+        assert index >= 0 && index < size;
+        return weights[ index ];
+    }
+
+    /**
+     * @return sum of all the weights in the tree
+     */
+    public double getTotal( )
+    {
+        double result = 0.0;
+
+        for( int i = size; i > 0; i -= i & -i )
+        {
+            result += tree[ i ];
+        }
+
+        return result;
+    }
+
+    /**
+     * find the element at which the running total of
+     * the weights first reaches a value
+     * @param value between zero and the total
+     * @return index of the element
+     */
+    public int find( double value )
+    {
+        assert value >= 0.0;
+
+        int position = 0;
+
+        for( int bit = topBit; bit > 0; bit >>= 1 )
+        {
+            final int next = position + bit;
+
+            if( next <= size && tree[ next ] < value )
+            {
+                position = next;
+                value -= tree[ next ];
+            }
+        }
+
+        // the partial sums may have drifted, so stay in range
+        return position < size ? position : size - 1;
+    }
+
+}   // end class
+
+//------- end file ----------------------------------------
@@ -0,0 +1,114 @@
+/*
+ * RandomStream.java
+ * 18 October 2026
+ */
+
+package myUtils;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A small, seedable stream of pseudorandom numbers, one per run and
+ * one per ant, so that ants running on different threads neither
+ * share a generator nor depend on the order in which they run.
+ *
+ * The generator is the SplitMix64 algorithm (the one behind
+ * SplittableRandom), written out here as the project targets Java 7.
+ * A stream is not thread safe; each thread must use its own stream.
+ *
+ * Child streams are derived from the seed the stream was created with,
+ * never from its current state, so deriving the stream for, say, ant 7
+ * of iteration 12 always gives the same numbers however many values
+ * the parent stream has produced in the meantime.
+ *
+ * @author Christopher Simons
+ */
+
+public class RandomStream
+{
+    /** the odd constant used to advance the state, 2^64 / golden ratio */
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    /** 1.0 / 2^53, to turn 53 random bits into a double */
+    private static final double DOUBLE_UNIT = 0x1.0p-53;
+
+    /** makes unseeded streams created at the same instant differ */
+    private static final AtomicLong seedUniquifier = new AtomicLong( 0L );
+
+    /** seed the stream was created with, from which children are derived */
+    private final long seed;
+
+    /** current state of the generator */
+    private long state;
+
+    /**
+     * construct an unseeded stream, seeded from the clock
+     */
+    public RandomStream( )
+    {
+        this( mix64( System.nanoTime( ) ) ^
+              mix64( seedUniquifier.addAndGet( GOLDEN_GAMMA ) ) );
+    }
+
+    /**
+     * construct a stream from a seed
+     * @param seed
+     */
+    public RandomStream( long seed )
+    {
+        this.seed = seed;
+        this.state = seed;
+    }
+
+    /**
+     * derive an independent child stream, e.g. for a run
+     * number, an iteration number or an ant number
+     * @param key identifying the child
+     * @return the child stream
+     */
+    public RandomStream derive( long key )
+    {
+        return new RandomStream( mix64( seed + mix64( key + GOLDEN_GAMMA ) ) );
+    }
+
+    /**
+     * @return the seed the stream was created with
+     */
+    public long getSeed( )
+    {
+        return seed;
+    }
+
+    /**
+     * @return the next pseudorandom long
+     */
+    public long nextLong( )
+    {
+        state += GOLDEN_GAMMA;
+        return mix64( state );
+    }
+
+    /**
+     * @return the next pseudorandom double in the range 0.0 (inclusive)
+     * to 1.0 (exclusive), just like Math.random( )
+     */
+    public double nextDouble( )
+    {
+        return ( nextLong( ) >>> 11 ) * DOUBLE_UNIT;
+    }
+
+    /**
+     * the SplitMix64 finaliser
+     * @param z
+     * @return mixed bits of z
+     */
+    private static long mix64( long z )
+    {
+        z = ( z ^ ( z >>> 30 ) ) * 0xbf58476d1ce4e5b9L;
+        z = ( z ^ ( z >>> 27 ) ) * 0x94d049bb133111ebL;
+        return z ^ ( z >>> 31 );
+    }
+
+}   // end class
+
+//------- end file ----------------------------------------
@@ -74,6 +74,51 @@ public class Utility
     }
 
     
+    /** get random integer in integer range from a random stream
+     *  @param random stream to draw from
+     *  @param lower bound as integer
+     *  @param upper bound as integer
+     *  @return a random integer in stated range 
+     */
+    public static int getRandomInRange( 
+        RandomStream random, int lowerBound, int upperBound )
+    {
+        assert random != null;
+        return (int) ( Math.floor( random.nextDouble( ) * 
+                    ( upperBound - lowerBound + 1 ) ) + lowerBound );
+    }
+    
+    /** get random double in double range from a random stream
+     *  @param random stream to draw from
+     *  @param lower bound as double
+     *  @param upper bound as double
+     *  @return a random double in stated range 
+     */
+    public static double getRandomInRange( 
+        RandomStream random, double lowerBound, double upperBound )
+    {
+        assert random != null;
+        assert lowerBound >= 0.0;
+        assert upperBound >= 0.0;
+        
+        double result = 0.0;
+        
+        if( lowerBound == 0.0 && upperBound == 0.0 )
+        {
+            result = 0.0;
+        }
+        else
+        {
+            assert upperBound > lowerBound :
+                "Upper bound is: " + upperBound +
+                " lower bound is: " + lowerBound;
+            double range = upperBound - lowerBound;
+
+            result = ( random.nextDouble( ) * range ) + lowerBound;
+        }
+        return result;
+    }
+    
     /**
      * Find the standard deviation of an array
      * of integer numbers.
@@ -6,6 +6,20 @@
 package pheromone;
 
 /**
+ * an alpha table now lives as long as its pheromone
+ * table. Between iterations it is refreshed: uniform evaporation is
+ * applied in closed form, as a scale of the factor raised to the power 
+ * of alpha, and only the cells set since the last refresh are raised 
+ * to the power of alpha again.
+ *
+ * Threading: while the ants construct their paths, any number of them
+ * may read the table and call localUpdate at once. Each local update
+ * changes the pheromone atomically, but writes the new alpha value with
+ * a plain set, so when two ants update the same cell together the alpha
+ * value may be that of the other ant's update, slightly out of step with
+ * the pheromone, until the next refresh recomputes it. refresh and build
+ * change the whole table and must never overlap construction; call them
+ * only between iterations, once every ant has finished.
  *
  * @author cl-simons
  */
@@ -16,32 +30,190 @@ public class AlphaTable
     /**
      * 'x' coordinate is 'from'
      * 'y' coordinate is 'to'
+     * 
+     * the same kind of storage as the pheromone
+     * table, always in double precision, and with the same nodes 
+     * should the pheromone table be reduced for frozen classes
      */
-    private double[ ][ ] alphaTable; 
+    private CellStore alphaTable; 
+    
+    /** the index in the storage of each node, or -1 if not stored */
+    private int[ ] storeIndex;
     
     /** size of both 'x' and 'y' dimensions of table */
     private final int size;
     
+    /** 
+     * an upper bound on the largest value in each 'to' column, i.e. on
+     * the probability of moving to a node from any other node, by index
+     * in the storage. Exact after a dense table is built in full.
+     */
+    private double[ ] columnMaxima;
+    
+    /** the pheromone table raised to the power of alpha */
+    private final PheromoneTable pt;
+    
+    /** the power */
+    private double alpha;
+    
     
     public AlphaTable( PheromoneTable pt, double alpha )
     {
         assert pt != null;
-        assert alpha >= 0.0;
-        assert alpha < 10.0; // some arbitrary upper bound
+        this.pt = pt;
         size = pt.size( );
         assert size > 0 : "invalid pheromone table";
         
-        alphaTable = new double[ size ][ size ];
+        alphaTable = null;
+        
+        build( alpha );
+    }
+    
+    /**
+     * bring the table up to date with its pheromone table; only between
+     * iterations, never while ants are constructing paths
+     * @param alpha
+     */
+    public void refresh( double alpha )
+    {
+        if( alpha != this.alpha || pt.isAllChanged( ) )
+        {
+            build( alpha );
+            return;
+        }
         
-        for( int i = 0; i < size; i++ )
+        // firstly, any uniform scale of every cell
+        final double scale = pt.getScaleSinceCleared( );
+        
+        if( scale != 1.0 )
         {
-            for( int j = 0; j < size; j++ )
+            final double alphaScale = power( scale, alpha );
+            
+            alphaTable.multiplyAll( alphaScale );
+            
+            for( int j = 0; j < columnMaxima.length; j++ )
             {
-                double temp = pt.getProbabilityAt( i, j );
-                
-                alphaTable[ i ][ j ] = Math.pow( temp, alpha );
+                columnMaxima[ j ] *= alphaScale;
             }
         }
+        
+        // secondly, the cells set, which already include the scale
+        final int numberOfChangedCells = pt.getNumberOfChangedCells( );
+        final CellStore store = pt.getStore( );
+        final int storeSize = store.size( );
+        final double pheromoneScale = pt.getScale( );
+        
+        for( int k = 0; k < numberOfChangedCells; k++ )
+        {
+            final long cell = pt.getChangedCell( k );
+            final int i = (int) ( cell / storeSize );
+            final int j = (int) ( cell % storeSize );
+            
+            final double value = power( store.get( i, j ) * pheromoneScale, alpha );
+            alphaTable.set( i, j, value );
+            
+            // the table is symmetric
+            columnMaxima[ i ] = Math.max( columnMaxima[ i ], value );
+            columnMaxima[ j ] = Math.max( columnMaxima[ j ], value );
+        }
+        
+        pt.clearChanges( );
+    }
+    
+    /**
+     * build the whole table from its pheromone table; only between
+     * iterations, never while ants are constructing paths
+     * @param alpha 
+     */
+    private void build( final double alpha )
+    {
+        assert alpha >= 0.0;
+        assert alpha < 10.0; // some arbitrary upper bound
+        this.alpha = alpha;
+        
+        final double scale = pt.getScale( );
+        final CellStore store = pt.getStore( );
+        
+        // the pheromone table may have been reduced, or expanded
+        if( alphaTable == null || alphaTable.size( ) != store.size( ) || 
+            storeIndex != pt.getStoreIndex( ) )
+        {
+            alphaTable = PheromoneTable.createCellStore( 
+                store.size( ), pt.getStoreFirstEndOfClass( ), false, null );
+            columnMaxima = new double[ store.size( ) ];
+            storeIndex = pt.getStoreIndex( );
+        }
+        
+        // cell by cell from the storage of the
+        // pheromone table, so sparse storage stays sparse
+        alphaTable.assignTransformed( pt.getStore( ), new CellFunction( )
+        {
+            @Override
+            public double apply( double value )
+            {
+                return power( value * scale, alpha );
+            }
+        } );
+        
+        alphaTable.getColumnMaxima( columnMaxima );
+        
+        pt.clearChanges( );
+    }
+    
+    /**
+     * raise a value to the power of alpha, by multiplication 
+     * when alpha is a small whole number
+     * @param value
+     * @param alpha
+     * @return value raised to the power of alpha
+     */
+    private static double power( double value, double alpha )
+    {
+        double result = 0.0;
+        
+        if( alpha == 1.0 )
+        {
+            result = value;
+        }
+        else if( alpha == Math.rint( alpha ) )
+        {
+            result = 1.0;
+            
+            for( int k = (int) alpha; k > 0; k-- )
+            {
+                result *= value;
+            }
+        }
+        else
+        {
+            result = Math.pow( value, alpha );
+        }
+        
+        return result;
+    }
+
+    /**
+     * an ACS style local update of the pheromone table, as an ant moves 
+     * from i to j, with the new value raised to the power of alpha at 
+     * once, so that the other ants see it. Safe for many ants at once,
+     * though the alpha value written may lag a concurrent update of the
+     * same cell until the next refresh.
+     * 
+     * The probability only ever falls, so the column maxima remain
+     * upper bounds.
+     * @param i, the 'from' coordinate
+     * @param j, the 'to' coordinate
+     * @param rate, the part of the way to move
+     * @param target, the probability is never taken below it
+     */
+    public void localUpdate( int i, int j, double rate, double target )
+    {
+        final double probability = pt.decayTowards( i, j, rate, target );
+        
+        if( storeIndex[ i ] >= 0 && storeIndex[ j ] >= 0 )
+        {
+            alphaTable.set( storeIndex[ i ], storeIndex[ j ], power( probability, alpha ) );
+        }
     }
 
     public double getProbabilityAt( int i, int j )
@@ -52,7 +224,22 @@ public class AlphaTable
         assert j >= 0 : "invalid low pheromone table index j " + i;
         assert j < size: "invalid high pheromone table index j " + i;
         
-        return alphaTable[ i ][ j ];
+        final int x = storeIndex[ i ];
+        final int y = storeIndex[ j ];
+        
+        return x >= 0 && y >= 0 ? alphaTable.get( x, y ) : 0.0;
+    }
+    
+    /**
+     * @param j, the 'to' coordinate
+     * @return largest probability of moving to j from any node
+     */
+    public double getColumnMaximum( int j )
+    {
+        assert j >= 0 : "invalid low pheromone table index j " + j;
+        assert j < size: "invalid high pheromone table index j " + j;
+        
+        return storeIndex[ j ] >= 0 ? columnMaxima[ storeIndex[ j ] ] : 0.0;
     }
     
 }   // end class
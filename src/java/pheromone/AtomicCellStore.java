@@ -0,0 +1,248 @@
+/*
+ * AtomicCellStore.java
+ * 18 October 2026
+ */
+
+package pheromone;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Dense storage for the values of a symmetric pheromone table, laid out
+ * as for DenseCellStore, in which every cell can be read and updated by
+ * many threads at once without locks. Each double value is held as its
+ * bits in an atomic long, and updated by compare and set.
+ *
+ * Only get, set and decayTowards are safe for concurrent use; the other
+ * operations are for a single thread, between iterations.
+ *
+ * @author Christopher Simons
+ */
+
+public class AtomicCellStore implements CellStore
+{
+    /** size of both 'x' and 'y' dimensions of the table */
+    private final int size;
+
+    /** number of nodes that are not end of class markers */
+    private final int firstEndOfClass;
+
+    /** number of cells in the rows before the end of class rows */
+    private final int triangleCells;
+
+    /** the cells, as the bits of doubles */
+    private final AtomicLongArray cells;
+
+    /**
+     * constructor, all cells are initially zero
+     * @param size of both dimensions of the table
+     * @param number of the first end of class marker
+     */
+    public AtomicCellStore( int size, int firstEndOfClass )
+    {
+        assert firstEndOfClass > 0;
+        assert firstEndOfClass < size;
+
+        this.size = size;
+        this.firstEndOfClass = firstEndOfClass;
+
+        final int numberOfCells = DenseCellStore.numberOfCells( 
+            size, firstEndOfClass, DenseCellStore.MAXIMUM_CELLS );
+
+        final long k = firstEndOfClass;
+        triangleCells = (int) ( k * ( k - 1 ) / 2 );
+
+        // the bits of 0.0 are all zero
+        cells = new AtomicLongArray( numberOfCells );
+    }
+
+    private int indexOf( int x, int y )
+    {
+        assert x >= 0 && x < size : "x is: " + x + ", and y is: " + y;
+        assert y >= 0 && y < size : "x is: " + x + ", and y is: " + y;
+
+        return DenseCellStore.indexOf( x, y, firstEndOfClass, triangleCells );
+    }
+
+    private double valueAt( int index )
+    {
+        return Double.longBitsToDouble( cells.get( index ) );
+    }
+
+    private void setValueAt( int index, double value )
+    {
+        cells.set( index, Double.doubleToRawLongBits( value ) );
+    }
+
+    @Override
+    public boolean isStored( int x, int y )
+    {
+        return indexOf( x, y ) >= 0;
+    }
+
+    @Override
+    public double get( int x, int y )
+    {
+        final int index = indexOf( x, y );
+        return index >= 0 ? valueAt( index ) : 0.0;
+    }
+
+    @Override
+    public void set( int x, int y, double value )
+    {
+        final int index = indexOf( x, y );
+
+        if( index >= 0 )
+        {
+            setValueAt( index, value );
+        }
+    }
+
+    /**
+     * move a cell part of the way towards a target, from above only,
+     * atomically with respect to every other update of the cell
+     * @param x
+     * @param y
+     * @param rate, the part of the way to move
+     * @param target, the cell is never taken below it
+     * @return new value of the cell
+     */
+    public double decayTowards( int x, int y, double rate, double target )
+    {
+        assert rate >= 0.0 && rate <= 1.0;
+
+        final int index = indexOf( x, y );
+
+        if( index < 0 )
+        {
+            return 0.0;
+        }
+
+        while( true )
+        {
+            final long bits = cells.get( index );
+            final double value = Double.longBitsToDouble( bits );
+
+            if( value <= target )
+            {
+                return value;
+            }
+
+            final double decayed = Math.max( target, ( 1.0 - rate ) * value + rate * target );
+
+            if( cells.compareAndSet( index, bits, Double.doubleToRawLongBits( decayed ) ) )
+            {
+                return decayed;
+            }
+        }
+    }
+
+    @Override
+    public void fill( double value )
+    {
+        for( int k = 0; k < cells.length( ); k++ )
+        {
+            setValueAt( k, value );
+        }
+    }
+
+    @Override
+    public void multiplyAll( double factor )
+    {
+        for( int k = 0; k < cells.length( ); k++ )
+        {
+            setValueAt( k, valueAt( k ) * factor );
+        }
+    }
+
+    @Override
+    public void transformAll( CellFunction function, double[ ] lowestHighest )
+    {
+        double lowest = Double.MAX_VALUE;
+        double highest = 0.0;
+
+        for( int k = 0; k < cells.length( ); k++ )
+        {
+            final double value = function.apply( valueAt( k ) );
+            setValueAt( k, value );
+
+            lowest = Math.min( lowest, value );
+            highest = Math.max( highest, value );
+        }
+
+        lowestHighest[ 0 ] = cells.length( ) > 0 ? lowest : 0.0;
+        lowestHighest[ 1 ] = highest;
+    }
+
+    @Override
+    public void assignTransformed( CellStore source, CellFunction function )
+    {
+        assert source.size( ) == size;
+
+        // the other store may be of any kind, so cell by cell
+        for( int i = 1; i < size; i++ )
+        {
+            final int columns = Math.min( i, firstEndOfClass );
+
+            for( int j = 0; j < columns; j++ )
+            {
+                setValueAt( indexOf( i, j ), function.apply( source.get( i, j ) ) );
+            }
+        }
+    }
+
+    @Override
+    public void getColumnMaxima( double[ ] maxima )
+    {
+        assert maxima.length == size;
+        Arrays.fill( maxima, 0.0 );
+
+        for( int i = 1; i < size; i++ )
+        {
+            final int columns = Math.min( i, firstEndOfClass );
+
+            for( int j = 0; j < columns; j++ )
+            {
+                final double value = valueAt( indexOf( i, j ) );
+                maxima[ i ] = Math.max( maxima[ i ], value );
+                maxima[ j ] = Math.max( maxima[ j ], value );
+            }
+        }
+    }
+
+    @Override
+    public double getLowest( )
+    {
+        double result = Double.MAX_VALUE;
+
+        for( int k = 0; k < cells.length( ); k++ )
+        {
+            result = Math.min( result, valueAt( k ) );
+        }
+
+        return cells.length( ) > 0 ? result : 0.0;
+    }
+
+    @Override
+    public double getHighest( )
+    {
+        double result = 0.0;
+
+        for( int k = 0; k < cells.length( ); k++ )
+        {
+            result = Math.max( result, valueAt( k ) );
+        }
+
+        return result;
+    }
+
+    @Override
+    public int size( )
+    {
+        return size;
+    }
+
+}   // end class
+
+//------- end file ----------------------------------------
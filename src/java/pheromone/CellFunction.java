@@ -0,0 +1,25 @@
+/*
+ * CellFunction.java
+ * 18 October 2026
+ */
+
+package pheromone;
+
+/**
+ * A function applied to the value of every cell of a table,
+ * e.g. for elitist evaporation or for raising to the power of alpha.
+ *
+ * @author Christopher Simons
+ */
+
+public interface CellFunction
+{
+    /**
+     * @param value of a cell
+     * @return new value of the cell
+     */
+    double apply( double value );
+
+}   // end interface
+
+//------- end file ----------------------------------------
@@ -0,0 +1,80 @@
+/*
+ * CellStore.java
+ * 18 October 2026
+ */
+
+package pheromone;
+
+/**
+ * Storage for the values of a symmetric table of pheromone (or of
+ * pheromone raised to the power of alpha), so that PheromoneTable and
+ * AlphaTable can hold either a dense or a sparse representation.
+ *
+ * Cell x, y and cell y, x are the same cell. The diagonal and the block
+ * from one end of class marker to another are always zero and setting
+ * them has no effect.
+ *
+ * @author Christopher Simons
+ */
+
+public interface CellStore
+{
+    double get( int x, int y );
+
+    void set( int x, int y, double value );
+
+    /**
+     * @param x
+     * @param y
+     * @return true if the cell can hold a value other than zero
+     */
+    boolean isStored( int x, int y );
+
+    /**
+     * set every cell that can hold a value other than zero to the same value
+     * @param value
+     */
+    void fill( double value );
+
+    /**
+     * multiply every cell by the same factor
+     * @param factor
+     */
+    void multiplyAll( double factor );
+
+    /**
+     * apply a function to every cell that can hold a value other than zero
+     * @param function
+     * @param lowestHighest, two elements, set to the lowest and highest
+     * new values of those cells
+     */
+    void transformAll( CellFunction function, double[ ] lowestHighest );
+
+    /**
+     * set every cell to a function of the same cell of another store
+     * @param source, a store of the same kind and size
+     * @param function
+     */
+    void assignTransformed( CellStore source, CellFunction function );
+
+    /**
+     * @param maxima, set to an upper bound on the highest value
+     * in each column (and so in each row)
+     */
+    void getColumnMaxima( double[ ] maxima );
+
+    /**
+     * @return lowest value of the cells that can hold a value other than zero
+     */
+    double getLowest( );
+
+    /**
+     * @return highest value of any cell
+     */
+    double getHighest( );
+
+    int size( );
+
+}   // end interface
+
+//------- end file ----------------------------------------
@@ -0,0 +1,373 @@
+/*
+ * DenseCellStore.java
+ * 18 October 2026
+ */
+
+package pheromone;
+
+import java.util.Arrays;
+
+/**
+ * Dense storage for the values of a symmetric pheromone table, in one
+ * contiguous array, either of doubles or, to halve the memory, of floats.
+ *
+ * Cell x, y and cell y, x are the same cell, so only the lower triangle
+ * is stored. The diagonal (from a node to itself) is always zero and so
+ * is the block from one end of class marker to another, as a path never
+ * moves to itself and never closes an empty class; neither is stored.
+ * Setting such a cell to a value other than zero has no effect.
+ *
+ * The nest, attributes and methods are the first K node numbers and
+ * the end of class markers follow, so the cells are laid out as:
+ *
+ *      rows 1 .. K - 1         j < i       K ( K - 1 ) / 2 cells
+ *      rows K .. size - 1      j < K       K cells each
+ *
+ * @author Christopher Simons
+ */
+
+public class DenseCellStore implements CellStore
+{
+    /** size of both 'x' and 'y' dimensions of the table */
+    private final int size;
+
+    /** number of nodes that are not end of class markers */
+    private final int firstEndOfClass;
+
+    /** number of cells in the rows before the end of class rows */
+    private final int triangleCells;
+
+    /** the most elements of an array that virtual machines reliably allow */
+    static final long MAXIMUM_CELLS = Integer.MAX_VALUE - 8;
+
+    /** the cells, one of these two arrays is used */
+    private final double[ ] doubles;
+    private final float[ ] floats;
+
+    /**
+     * constructor, all cells are initially zero
+     * @param size of both dimensions of the table
+     * @param number of the first end of class marker
+     * @param single precision, i.e. floats rather than doubles
+     */
+    public DenseCellStore( int size, int firstEndOfClass, boolean singlePrecision )
+    {
+        assert firstEndOfClass > 0;
+        assert firstEndOfClass < size;
+
+        this.size = size;
+        this.firstEndOfClass = firstEndOfClass;
+
+        final int cells = numberOfCells( size, firstEndOfClass, MAXIMUM_CELLS );
+
+        final long k = firstEndOfClass;
+        triangleCells = (int) ( k * ( k - 1 ) / 2 );
+
+        if( singlePrecision == true )
+        {
+            floats = new float[ cells ];
+            doubles = null;
+        }
+        else
+        {
+            doubles = new double[ cells ];
+            floats = null;
+        }
+    }
+
+    /**
+     * the number of cells stored by the triangular layout, checked
+     * against a limit, e.g. the largest array the virtual machine allows
+     * @param size of both dimensions of the table
+     * @param number of the first end of class marker
+     * @param largest number of cells allowed
+     * @return number of cells
+     * @throws IllegalArgumentException if there would be too many cells
+     */
+    static int numberOfCells( int size, int firstEndOfClass, long maximumCells )
+    {
+        final long k = firstEndOfClass;
+        final long cells = k * ( k - 1 ) / 2 + ( size - k ) * k;
+
+        if( cells > maximumCells )
+        {
+            throw new IllegalArgumentException( 
+                "pheromone table too large: " + size + " nodes need " + cells + 
+                " cells, at most " + maximumCells + " can be stored" );
+        }
+
+        return (int) cells;
+    }
+
+    /**
+     * @param x
+     * @param y
+     * @return index of the cell, or -1 if the cell is not stored
+     */
+    private int indexOf( int x, int y )
+    {
+        assert x >= 0 && x < size : "x is: " + x + ", and y is: " + y;
+        assert y >= 0 && y < size : "x is: " + x + ", and y is: " + y;
+
+        return indexOf( x, y, firstEndOfClass, triangleCells );
+    }
+
+    /**
+     * the triangular layout, shared with other dense stores, in long
+     * arithmetic as the row offsets overflow an int before the index 
+     * does; the store checks that every index fits in an int
+     * @param x
+     * @param y
+     * @param number of the first end of class marker
+     * @param number of cells in the rows before the end of class rows
+     * @return index of the cell, or -1 if the cell is not stored
+     */
+    static int indexOf( int x, int y, int firstEndOfClass, int triangleCells )
+    {
+        final int i = Math.max( x, y );
+        final int j = Math.min( x, y );
+
+        int result = -1;
+
+        if( i == j || j >= firstEndOfClass )
+        {
+            // on the diagonal, or from one end of class to another
+        }
+        else if( i < firstEndOfClass )
+        {
+            result = (int) ( (long) i * ( i - 1 ) / 2 + j );
+        }
+        else
+        {
+            result = (int) ( triangleCells + (long) ( i - firstEndOfClass ) * firstEndOfClass + j );
+        }
+
+        return result;
+    }
+
+    @Override
+    public boolean isStored( int x, int y )
+    {
+        return indexOf( x, y ) >= 0;
+    }
+
+    @Override
+    public double get( int x, int y )
+    {
+        final int index = indexOf( x, y );
+        double result = 0.0;
+
+        if( index >= 0 )
+        {
+            result = doubles != null ? doubles[ index ] : floats[ index ];
+        }
+
+        return result;
+    }
+
+    @Override
+    public void set( int x, int y, double value )
+    {
+        final int index = indexOf( x, y );
+
+        if( index >= 0 )
+        {
+            if( doubles != null )
+            {
+                doubles[ index ] = value;
+            }
+            else
+            {
+                floats[ index ] = (float) value;
+            }
+        }
+    }
+
+    @Override
+    public void fill( double value )
+    {
+        if( doubles != null )
+        {
+            Arrays.fill( doubles, value );
+        }
+        else
+        {
+            Arrays.fill( floats, (float) value );
+        }
+    }
+
+    @Override
+    public void multiplyAll( double factor )
+    {
+        if( doubles != null )
+        {
+            for( int k = 0; k < doubles.length; k++ )
+            {
+                doubles[ k ] *= factor;
+            }
+        }
+        else
+        {
+            for( int k = 0; k < floats.length; k++ )
+            {
+                floats[ k ] *= factor;
+            }
+        }
+    }
+
+    @Override
+    public void transformAll( CellFunction function, double[ ] lowestHighest )
+    {
+        double lowest = Double.MAX_VALUE;
+        double highest = 0.0;
+        final int n = getNumberOfCells( );
+
+        for( int k = 0; k < n; k++ )
+        {
+            double value = 0.0;
+
+            if( doubles != null )
+            {
+                doubles[ k ] = function.apply( doubles[ k ] );
+                value = doubles[ k ];
+            }
+            else
+            {
+                floats[ k ] = (float) function.apply( floats[ k ] );
+                value = floats[ k ];
+            }
+
+            lowest = Math.min( lowest, value );
+            highest = Math.max( highest, value );
+        }
+
+        lowestHighest[ 0 ] = n > 0 ? lowest : 0.0;
+        lowestHighest[ 1 ] = highest;
+    }
+
+    @Override
+    public void assignTransformed( CellStore source, CellFunction function )
+    {
+        if( source instanceof DenseCellStore == false )
+        {
+            assignTransformedByCell( source, function );
+            return;
+        }
+
+        final DenseCellStore other = (DenseCellStore) source;
+        assert other.size == size && other.firstEndOfClass == firstEndOfClass;
+        final int n = getNumberOfCells( );
+
+        for( int k = 0; k < n; k++ )
+        {
+            final double value = function.apply(
+                other.doubles != null ? other.doubles[ k ] : other.floats[ k ] );
+
+            if( doubles != null )
+            {
+                doubles[ k ] = value;
+            }
+            else
+            {
+                floats[ k ] = (float) value;
+            }
+        }
+    }
+
+    /**
+     * set every cell to a function of the same cell of a store of another
+     * kind, with the same layout, cell by cell
+     * @param source
+     * @param function
+     */
+    private void assignTransformedByCell( CellStore source, CellFunction function )
+    {
+        assert source.size( ) == size;
+
+        for( int i = 1; i < size; i++ )
+        {
+            final int columns = Math.min( i, firstEndOfClass );
+
+            for( int j = 0; j < columns; j++ )
+            {
+                set( i, j, function.apply( source.get( i, j ) ) );
+            }
+        }
+    }
+
+    @Override
+    public void getColumnMaxima( double[ ] maxima )
+    {
+        assert maxima.length == size;
+        Arrays.fill( maxima, 0.0 );
+        int k = 0;
+
+        for( int i = 1; i < size; i++ )
+        {
+            final int columns = Math.min( i, firstEndOfClass );
+
+            for( int j = 0; j < columns; j++ )
+            {
+                final double value = doubles != null ? doubles[ k ] : floats[ k ];
+                k++;
+
+                if( value > maxima[ i ] )
+                {
+                    maxima[ i ] = value;
+                }
+
+                if( value > maxima[ j ] )
+                {
+                    maxima[ j ] = value;
+                }
+            }
+        }
+
+        assert k == getNumberOfCells( );
+    }
+
+    @Override
+    public double getLowest( )
+    {
+        double result = Double.MAX_VALUE;
+        final int n = getNumberOfCells( );
+
+        for( int k = 0; k < n; k++ )
+        {
+            result = Math.min( result, doubles != null ? doubles[ k ] : floats[ k ] );
+        }
+
+        return n > 0 ? result : 0.0;
+    }
+
+    @Override
+    public double getHighest( )
+    {
+        double result = 0.0;
+        final int n = getNumberOfCells( );
+
+        for( int k = 0; k < n; k++ )
+        {
+            result = Math.max( result, doubles != null ? doubles[ k ] : floats[ k ] );
+        }
+
+        return result;
+    }
+
+    /**
+     * @return number of cells stored
+     */
+    public int getNumberOfCells( )
+    {
+        return doubles != null ? doubles.length : floats.length;
+    }
+
+    @Override
+    public int size( )
+    {
+        return size;
+    }
+
+}   // end class
+
+//------- end file ----------------------------------------
@@ -0,0 +1,470 @@
+/*
+ * MappedCellStore.java
+ * 18 October 2026
+ */
+
+package pheromone;
+
+import config.AlgorithmParameters;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Dense storage for the values of a symmetric pheromone table, laid out
+ * as for DenseCellStore, in a memory mapped file rather than on the heap.
+ * Other processes on the same host can attach to the same file, to
+ * snapshot the pheromone of a running colony.
+ *
+ * The file starts with a header, in the native byte order:
+ *
+ *      0       int         MAGIC
+ *      4       int         VERSION
+ *      8       int         size of both dimensions of the table
+ *      12      int         number of the first end of class marker
+ *      16      double      scale, by which every cell is multiplied when read
+ *      24      double[ ]   the cells
+ *
+ * Writes by one process become visible to the others through the page
+ * cache, without any ordering between cells; a reader sees each cell
+ * either before or after an update, but a snapshot of the whole table
+ * may mix two iterations.
+ *
+ * Each colony has one file, named by nextFileName so that colonies and
+ * processes don't overwrite each other. The first store of the file
+ * creates and maps it; every later store of the same file, e.g. for the
+ * next run, or for a table reduced for frozen classes, reuses the same
+ * mapping and rewrites the header, so the file is never truncated while
+ * another process may have it mapped, and a colony never holds more than
+ * one file however many runs it makes. A reader must attach again to
+ * follow a change of size. The file is deleted when the virtual machine
+ * exits, unless the algorithm parameters ask to keep it.
+ *
+ * @author Christopher Simons
+ */
+
+public class MappedCellStore implements CellStore
+{
+    /** "PHER" */
+    private static final int MAGIC = 0x50484552;
+    private static final int VERSION = 1;
+
+    private static final int SIZE_OFFSET = 8;
+    private static final int FIRST_END_OF_CLASS_OFFSET = 12;
+    private static final int SCALE_OFFSET = 16;
+    private static final int HEADER_BYTES = 24;
+
+    /** size of both 'x' and 'y' dimensions of the table */
+    private final int size;
+
+    /** number of nodes that are not end of class markers */
+    private final int firstEndOfClass;
+
+    /** number of cells in the rows before the end of class rows */
+    private final int triangleCells;
+
+    /** number of cells stored */
+    private final int numberOfCells;
+
+    /** the header and the cells */
+    private final MappedByteBuffer buffer;
+
+    /** name of the file */
+    private final String fileName;
+
+    /** number of files named by this process so far */
+    private static final AtomicInteger filesNamed = new AtomicInteger( 0 );
+
+    /** the mapping of each file this process has created, by name */
+    private static final Map< String, MappedByteBuffer > mappings = new HashMap< >( );
+
+    /**
+     * constructor, creating the file, or reusing the mapping of a file 
+     * this process created before, all cells initially zero
+     * @param name of the file, which must not exist unless this process 
+     * created it
+     * @param size of both dimensions of the table
+     * @param number of the first end of class marker
+     */
+    public MappedCellStore( String fileName, int size, int firstEndOfClass )
+    {
+        assert fileName != null;
+        assert firstEndOfClass > 0;
+        assert firstEndOfClass < size;
+
+        this.fileName = fileName;
+        this.size = size;
+        this.firstEndOfClass = firstEndOfClass;
+
+        // a mapped buffer holds at most Integer.MAX_VALUE bytes
+        numberOfCells = DenseCellStore.numberOfCells( 
+            size, firstEndOfClass, ( Integer.MAX_VALUE - HEADER_BYTES ) / 8 );
+
+        final long k = firstEndOfClass;
+        triangleCells = (int) ( k * ( k - 1 ) / 2 );
+
+        buffer = mappingOf( fileName, HEADER_BYTES + numberOfCells * 8L );
+        buffer.putInt( 0, MAGIC );
+        buffer.putInt( 4, VERSION );
+        buffer.putInt( SIZE_OFFSET, size );
+        buffer.putInt( FIRST_END_OF_CLASS_OFFSET, firstEndOfClass );
+        setScale( 1.0 );
+        fill( 0.0 );
+    }
+
+    /**
+     * constructor, attaching to a file made by another store
+     * @param name of the file
+     * @throws IllegalArgumentException if the file is not a pheromone 
+     * file of this version, or is shorter than its header says
+     */
+    private MappedCellStore( String fileName )
+    {
+        assert fileName != null;
+
+        this.fileName = fileName;
+        buffer = map( fileName, 0, false );
+
+        if( buffer.capacity( ) < HEADER_BYTES || buffer.getInt( 0 ) != MAGIC )
+        {
+            throw new IllegalArgumentException( "not a pheromone file: " + fileName );
+        }
+
+        if( buffer.getInt( 4 ) != VERSION )
+        {
+            throw new IllegalArgumentException( 
+                "pheromone file " + fileName + " is version " + buffer.getInt( 4 ) + 
+                ", not version " + VERSION );
+        }
+
+        size = buffer.getInt( SIZE_OFFSET );
+        firstEndOfClass = buffer.getInt( FIRST_END_OF_CLASS_OFFSET );
+
+        if( firstEndOfClass <= 0 || firstEndOfClass >= size )
+        {
+            throw new IllegalArgumentException( 
+                "pheromone file " + fileName + " has an impossible size: " + 
+                size + ", first end of class: " + firstEndOfClass );
+        }
+
+        numberOfCells = DenseCellStore.numberOfCells( 
+            size, firstEndOfClass, ( Integer.MAX_VALUE - HEADER_BYTES ) / 8 );
+
+        // the file may be larger, once its table has been reduced
+        if( buffer.capacity( ) < HEADER_BYTES + numberOfCells * 8L )
+        {
+            throw new IllegalArgumentException( 
+                "pheromone file " + fileName + " is truncated: " + buffer.capacity( ) + 
+                " bytes, " + ( HEADER_BYTES + numberOfCells * 8L ) + " expected" );
+        }
+
+        final long k = firstEndOfClass;
+        triangleCells = (int) ( k * ( k - 1 ) / 2 );
+    }
+
+    /**
+     * attach to the pheromone of another colony, e.g. in another process
+     * @param name of the file
+     * @return a store of the cells in the file, read as its own
+     * @throws IllegalArgumentException if the file is not a whole 
+     * pheromone file of this version
+     */
+    public static MappedCellStore attach( String fileName )
+    {
+        return new MappedCellStore( fileName );
+    }
+
+    /**
+     * name a new file, unique to this process and this call, e.g. 
+     * "pheromone.map" becomes "pheromone-1234-7.map" for the seventh 
+     * file named by process 1234
+     * @param name of the file, from which the new name is made
+     * @return name of a file for a new store
+     */
+    public static String nextFileName( String baseName )
+    {
+        assert baseName != null;
+
+        // "pid@host" on the usual virtual machines
+        String process = ManagementFactory.getRuntimeMXBean( ).getName( );
+        final int at = process.indexOf( '@' );
+
+        if( at > 0 )
+        {
+            process = process.substring( 0, at );
+        }
+
+        final String suffix = "-" + process + "-" + filesNamed.incrementAndGet( );
+        final int dot = baseName.lastIndexOf( '.' );
+        final int separator = Math.max( baseName.lastIndexOf( '/' ), baseName.lastIndexOf( '\\' ) );
+
+        return dot > separator ?
+            baseName.substring( 0, dot ) + suffix + baseName.substring( dot ) :
+            baseName + suffix;
+    }
+
+    /**
+     * @return name of the file
+     */
+    public String getFileName( )
+    {
+        return fileName;
+    }
+
+    /**
+     * the mapping of a file for a new store, reused if this process 
+     * has already mapped the file and it is large enough
+     * @param name of the file
+     * @param number of bytes needed
+     * @return the whole file, mapped for reading and writing
+     */
+    private static MappedByteBuffer mappingOf( String fileName, long bytes )
+    {
+        synchronized( mappings )
+        {
+            MappedByteBuffer result = mappings.get( fileName );
+            
+            if( result == null || result.capacity( ) < bytes )
+            {
+                // never created here, so the file must be new;
+                // otherwise only ever grown, never truncated
+                result = map( fileName, bytes, result == null );
+                
+                if( mappings.containsKey( fileName ) == false && 
+                    AlgorithmParameters.KEEP_MAPPED_PHEROMONE_FILES == false )
+                {
+                    new File( fileName ).deleteOnExit( );
+                }
+                
+                mappings.put( fileName, result );
+            }
+            
+            return result;
+        }
+    }
+
+    /**
+     * @param name of the file
+     * @param number of bytes, or zero for the length of an existing file;
+     * an existing file shorter than this is lengthened
+     * @param true to create the file, which must not already exist
+     * @return the whole file, mapped for reading and writing
+     */
+    private static MappedByteBuffer map( String fileName, long bytes, boolean create )
+    {
+        MappedByteBuffer result = null;
+
+        try
+        {
+            // truncating a file that another process has mapped would
+            // crash that process on its next read
+            if( create == true && new File( fileName ).createNewFile( ) == false )
+            {
+                throw new IllegalStateException( "pheromone file already exists: " + fileName );
+            }
+            
+            if( create == false && new File( fileName ).isFile( ) == false )
+            {
+                throw new IllegalArgumentException( "no pheromone file: " + fileName );
+            }
+        }
+        catch( IOException ex )
+        {
+            throw new IllegalStateException( "can't create " + fileName, ex );
+        }
+
+        // the mapping stays valid once the file is closed
+        try( RandomAccessFile file = new RandomAccessFile( fileName, "rw" ) )
+        {
+            if( file.length( ) < bytes )
+            {
+                file.setLength( bytes );
+            }
+
+            final FileChannel channel = file.getChannel( );
+            result = channel.map( FileChannel.MapMode.READ_WRITE, 0, channel.size( ) );
+            result.order( ByteOrder.nativeOrder( ) );
+        }
+        catch( IOException ex )
+        {
+            throw new IllegalStateException( "can't map " + fileName, ex );
+        }
+
+        return result;
+    }
+
+    /**
+     * @return the scale by which every cell is multiplied when read
+     */
+    public double getScale( )
+    {
+        return buffer.getDouble( SCALE_OFFSET );
+    }
+
+    /**
+     * record the scale, for other processes to read the cells by
+     * @param scale
+     */
+    public void setScale( double scale )
+    {
+        buffer.putDouble( SCALE_OFFSET, scale );
+    }
+
+    private int indexOf( int x, int y )
+    {
+        assert x >= 0 && x < size : "x is: " + x + ", and y is: " + y;
+        assert y >= 0 && y < size : "x is: " + x + ", and y is: " + y;
+
+        return DenseCellStore.indexOf( x, y, firstEndOfClass, triangleCells );
+    }
+
+    private double valueAt( int index )
+    {
+        return buffer.getDouble( HEADER_BYTES + index * 8 );
+    }
+
+    private void setValueAt( int index, double value )
+    {
+        buffer.putDouble( HEADER_BYTES + index * 8, value );
+    }
+
+    @Override
+    public boolean isStored( int x, int y )
+    {
+        return indexOf( x, y ) >= 0;
+    }
+
+    @Override
+    public double get( int x, int y )
+    {
+        final int index = indexOf( x, y );
+        return index >= 0 ? valueAt( index ) : 0.0;
+    }
+
+    @Override
+    public void set( int x, int y, double value )
+    {
+        final int index = indexOf( x, y );
+
+        if( index >= 0 )
+        {
+            setValueAt( index, value );
+        }
+    }
+
+    @Override
+    public void fill( double value )
+    {
+        for( int k = 0; k < numberOfCells; k++ )
+        {
+            setValueAt( k, value );
+        }
+    }
+
+    @Override
+    public void multiplyAll( double factor )
+    {
+        for( int k = 0; k < numberOfCells; k++ )
+        {
+            setValueAt( k, valueAt( k ) * factor );
+        }
+    }
+
+    @Override
+    public void transformAll( CellFunction function, double[ ] lowestHighest )
+    {
+        double lowest = Double.MAX_VALUE;
+        double highest = 0.0;
+
+        for( int k = 0; k < numberOfCells; k++ )
+        {
+            final double value = function.apply( valueAt( k ) );
+            setValueAt( k, value );
+
+            lowest = Math.min( lowest, value );
+            highest = Math.max( highest, value );
+        }
+
+        lowestHighest[ 0 ] = numberOfCells > 0 ? lowest : 0.0;
+        lowestHighest[ 1 ] = highest;
+    }
+
+    @Override
+    public void assignTransformed( CellStore source, CellFunction function )
+    {
+        assert source.size( ) == size;
+
+        // the other store may be of any kind, so cell by cell
+        for( int i = 1; i < size; i++ )
+        {
+            final int columns = Math.min( i, firstEndOfClass );
+
+            for( int j = 0; j < columns; j++ )
+            {
+                setValueAt( indexOf( i, j ), function.apply( source.get( i, j ) ) );
+            }
+        }
+    }
+
+    @Override
+    public void getColumnMaxima( double[ ] maxima )
+    {
+        assert maxima.length == size;
+        Arrays.fill( maxima, 0.0 );
+
+        for( int i = 1; i < size; i++ )
+        {
+            final int columns = Math.min( i, firstEndOfClass );
+
+            for( int j = 0; j < columns; j++ )
+            {
+                final double value = valueAt( indexOf( i, j ) );
+                maxima[ i ] = Math.max( maxima[ i ], value );
+                maxima[ j ] = Math.max( maxima[ j ], value );
+            }
+        }
+    }
+
+    @Override
+    public double getLowest( )
+    {
+        double result = Double.MAX_VALUE;
+
+        for( int k = 0; k < numberOfCells; k++ )
+        {
+            result = Math.min( result, valueAt( k ) );
+        }
+
+        return numberOfCells > 0 ? result : 0.0;
+    }
+
+    @Override
+    public double getHighest( )
+    {
+        double result = 0.0;
+
+        for( int k = 0; k < numberOfCells; k++ )
+        {
+            result = Math.max( result, valueAt( k ) );
+        }
+
+        return result;
+    }
+
+    @Override
+    public int size( )
+    {
+        return size;
+    }
+
+}   // end class
+
+//------- end file ----------------------------------------
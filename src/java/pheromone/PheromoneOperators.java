@@ -8,6 +8,7 @@ package pheromone;
 
 import java.util.*;
 import config.*;
+import myUtils.RandomStream;
 import myUtils.Utility;
 import engine.*;
 import myUtils.Weights;
@@ -53,84 +54,61 @@ public class PheromoneOperators
     public static void evaporate( PheromoneTable pheromoneTable, double rho )
     {
         assert pheromoneTable != null;
-        final int pheromoneTableSize = pheromoneTable.size( );
         assert rho >= 0.0;
         assert rho <= 1.0;
         
-        // 19 April 2012 - fitness proportionate decay
-        double lowest = 1000000.0;
-        double highest = 0.0;
-        double prob = 0.0;
-        double median = 0.0;
-        
-        // 24 April 2012, switch to toggle elist evaporation
-        if( AlgorithmParameters.evaporationElitism == true )
-        {
-            for( int i = 0; i < pheromoneTableSize; i++) 
-            {
-                for( int j = 0; j < pheromoneTableSize; j++) 
-                {
-                    prob = pheromoneTable.getProbabilityAt( i, j );
-
-                    if( prob < lowest )
-                    {
-                        lowest = prob;
-                    }
-
-                    if( prob > highest )
-                    {
-                        highest = prob;
-                    }
-                }
-            }
-        
-            assert highest >= lowest;
-            assert highest - lowest != 0.0;
-            // bug fix 7 September 2012
-//            median = ( highest - lowest ) / 2.0;
-            median = lowest + ( ( highest - lowest ) / 2.0 );
-        }
-        
         final double evaporationFactor = 1.0 - rho;
         assert evaporationFactor >= 0.0;
         assert evaporationFactor <= 1.0;
         
-        for( int i = 0; i < pheromoneTableSize; i++) 
+        // uniform evaporation as a single scale,
+        // folded into reads of the table
+        if( AlgorithmParameters.evaporationElitism == false )
         {
-            for( int j = 0; j < pheromoneTableSize; j++) 
+            pheromoneTable.scaleAll( evaporationFactor );
+            return;
+        }
+        
+        // 19 April 2012 - fitness proportionate decay
+        // 24 April 2012, switch to toggle elist evaporation
+        // the table keeps its lowest and highest
+        // values as it is set, so there is no need to scan for them
+        final double lowest = pheromoneTable.getLowest( );
+        final double highest = pheromoneTable.getHighest( );
+        
+        assert highest >= lowest;
+        assert highest - lowest != 0.0;
+        // bug fix 7 September 2012
+//        median = ( highest - lowest ) / 2.0;
+        final double median = lowest + ( ( highest - lowest ) / 2.0 );
+        
+        // the table is symmetric, so each distinct
+        // cell is evaporated once only, by whichever storage it has
+        pheromoneTable.transformAll( new CellFunction( )
+        {
+            @Override
+            public double apply( double prob )
             {
-                prob = pheromoneTable.getProbabilityAt( i, j );
-                double newProb = 0.0;
-                
-                if( AlgorithmParameters.evaporationElitism == true )
-                {
-                    double multiplier = 1.0;
-
-                    if( prob > median ) // decay is proportionately less
-                    {
-                        double difference = highest - prob;
-                        multiplier = evaporationFactor * ( 1 - ( difference / median ) * ELITIST_FACTOR );
-                    }
-                    else if( prob < median ) // decay is proportionately more
-                    {
-                        double difference = median - prob;
-                        multiplier = evaporationFactor * ( 1 + ( difference / median ) * ELITIST_FACTOR );
-                    }
-                    else // prob == median
-                    {
-                        // do nothing, multiplier staus at 1.0
-                    }
+                double multiplier = 1.0;
 
-                    newProb = prob * multiplier;
+                if( prob > median ) // decay is proportionately less
+                {
+                    double difference = highest - prob;
+                    multiplier = evaporationFactor * ( 1 - ( difference / median ) * ELITIST_FACTOR );
+                }
+                else if( prob < median ) // decay is proportionately more
+                {
+                    double difference = median - prob;
+                    multiplier = evaporationFactor * ( 1 + ( difference / median ) * ELITIST_FACTOR );
                 }
-                else // uniform (normal) evaporation 
+                else // prob == median
                 {
-                    newProb = prob * evaporationFactor;  
+                    // do nothing, multiplier staus at 1.0
                 }
-                        
-                pheromoneTable.setProbabilityAt( i , j, newProb );
+
+                return prob * multiplier;
             }
-        }
+        } );
     }
     
     /**
@@ -144,6 +122,7 @@ public class PheromoneOperators
      * @param bestInColonyCBO best path in the colony w.r.t. CBO
      * @param bestInColonyNAC best path in the colony w.r.t. NAC
      * @param bestInColonyATMR best path in the colony w.r.t. ATMR
+     * @param random stream of the run, for selection between equals
      */
     public static void update( 
         PheromoneTable pheromoneTable, 
@@ -152,7 +131,8 @@ public class PheromoneOperators
         Weights weights,
         Path bestInColonyCBO,
         Path bestInColonyNAC,
-        Path bestInColonyATMR )
+        Path bestInColonyATMR,
+        RandomStream random )
     {
         assert pheromoneTable != null;
         assert colony != null;
@@ -163,12 +143,13 @@ public class PheromoneOperators
         assert bestInColonyCBO != null;
         assert bestInColonyNAC != null;
         assert bestInColonyATMR != null;
+        assert random != null;
         
         // 9 April 2013
         if( AlgorithmParameters.algorithm == AlgorithmParameters.algorithm.MMAS ) 
         {
             performMMASUpdate( 
-                colony, pheromoneTable, mu, weights, bestInColonyCBO, bestInColonyNAC );
+                colony, pheromoneTable, mu, weights, bestInColonyCBO, bestInColonyNAC, random );
         }
         else // Simple-ACO, so every ant lays pheromone
         {
@@ -223,27 +204,23 @@ public class PheromoneOperators
         // final node must be an "end of class"
         final int finalNode = path.size( ) - 1;
             
-        // and now iterate along the node list in the path
-        Iterator< Node > it = path.iterator( );
+        // and now iterate along the node numbers in the path
+        final int[ ] nodes = path.getNodeNumbers( );
         
-        for( int i = 0; it.hasNext( ); i++ )
+        for( int i = 0; i < nodes.length; i++ )
         {
-            Node node = it.next( );
-            
             if( i == 0 )    // the "nest"
             {    
-                from = node.getNumber( );
+                from = nodes[ i ];
             }
             else if( i == finalNode ) // the last "end of class" marker
             {
                 // do nothing, because the probability of moving from
                 // the last end of class marker is always zero
-                
-                assert node instanceof EndOfClass;
             }
             else
             {
-                to = node.getNumber( );
+                to = nodes[ i ];
             
                 double probability = pheromoneTable.getProbabilityAt( from, to );
 
@@ -680,9 +657,142 @@ public class PheromoneOperators
                 }
             }
         }
-         
-        pt.show( );
+    }
+    
+    /**
+     * calculate the average lambda-branching factor of the table, i.e.
+     * for each node, the number of nodes to which the probability is at
+     * least its lowest plus lambda times its range, averaged over the 
+     * nodes. Probabilities of zero, e.g. from a node to itself, are not 
+     * counted. As the search stagnates on one path, each node keeps 
+     * high probabilities to its neighbours on the path only, and the 
+     * factor falls towards two.
+     * 
+     * See "Ant Colony Optimisation", by Dorigo and Stutzle, 2004, 
+     * MIT Press, section 3.3.1.
+     * 
+     * @param pheromone table
+     * @param lambda, between zero and one
+     * @return average lambda-branching factor
+     */
+    public static double calculateBranchingFactor( PheromoneTable pheromoneTable, double lambda )
+    {
+        assert pheromoneTable != null;
+        assert lambda >= 0.0 && lambda <= 1.0;
+        
+        final int size = pheromoneTable.size( );
+        int numberOfNodes = 0;
+        long total = 0;
+        
+        for( int i = 0; i < size; i++ )
+        {
+            double lowest = Double.MAX_VALUE;
+            double highest = 0.0;
+            
+            for( int j = 0; j < size; j++ )
+            {
+                final double prob = pheromoneTable.getProbabilityAt( i, j );
+                
+                if( prob > 0.0 )
+                {
+                    lowest = Math.min( lowest, prob );
+                    highest = Math.max( highest, prob );
+                }
+            }
+            
+            if( highest == 0.0 )
+            {
+                continue;   // e.g. a node of a frozen class
+            }
+            
+            final double threshold = lowest + lambda * ( highest - lowest );
+            
+            for( int j = 0; j < size; j++ )
+            {
+                final double prob = pheromoneTable.getProbabilityAt( i, j );
+                
+                if( prob > 0.0 && prob >= threshold )
+                {
+                    total++;
+                }
+            }
+            
+            numberOfNodes++;
+        }
+        
+        return numberOfNodes > 0 ? (double) total / numberOfNodes : 0.0;
+    }
+    
+    /**
+     * seed a fresh pheromone table from existing designs or paths, 
+     * so that a run starts from what is already known to be good.
+     * 
+     * Every edge of the seed paths keeps its initial probability, and 
+     * every other edge is lowered part of the way towards the MMAS 
+     * pheromone minimum. Lowering, rather than raising, keeps the seed
+     * edges within the MMAS bounds, which a fresh table starts at.
+     * 
+     * @param pheromone table, freshly initialised
+     * @param seed paths, as node numbers from the nest to the last end of class
+     * @param strength, from zero (no effect) to one (the other edges are 
+     * lowered all the way to the minimum)
+     */
+    public static void warmStart( 
+        PheromoneTable pheromoneTable, List< int[ ] > seeds, final double strength )
+    {
+        assert pheromoneTable != null;
+        assert seeds != null;
+        assert strength >= 0.0 && strength <= 1.0 : "strength is: " + strength;
+        
+        if( seeds.isEmpty( ) || strength == 0.0 )
+        {
+            return;
+        }
+        
+        // firstly, note the probabilities of the seed edges
+        int numberOfEdges = 0;
+        
+        for( int[ ] nodes : seeds )
+        {
+            numberOfEdges += nodes.length - 1;
+        }
+        
+        final int[ ] from = new int[ numberOfEdges ];
+        final int[ ] to = new int[ numberOfEdges ];
+        final double[ ] probabilities = new double[ numberOfEdges ];
+        int edge = 0;
+        
+        for( int[ ] nodes : seeds )
+        {
+            for( int i = 1; i < nodes.length; i++ )
+            {
+                assert nodes[ i ] >= 0 && nodes[ i ] < pheromoneTable.size( );
+                
+                from[ edge ] = nodes[ i - 1 ];
+                to[ edge ] = nodes[ i ];
+                probabilities[ edge ] = 
+                    pheromoneTable.getProbabilityAt( from[ edge ], to[ edge ] );
+                edge++;
+            }
+        }
+        
+        // secondly, lower every edge
+        final double minimum = AlgorithmParameters.MMAS_PHEROMONE_MINIMUM;
         
+        pheromoneTable.transformAll( new CellFunction( )
+        {
+            @Override
+            public double apply( double prob )
+            {
+                return prob > minimum ? prob - strength * ( prob - minimum ) : prob;
+            }
+        } );
+        
+        // lastly, restore the seed edges, symmetrically
+        for( int k = 0; k < numberOfEdges; k++ )
+        {
+            pheromoneTable.setProbabilityAt( from[ k ], to[ k ], probabilities[ k ] );
+        }
     }
     
     /**
@@ -691,6 +801,7 @@ public class PheromoneOperators
      * @param pheromoneTable
      * @param mu update parameter
      * @param weights 
+     * @param random stream, for selection between equals
      */
     private static void performMMASUpdate( 
         List< Path > colony, 
@@ -698,11 +809,12 @@ public class PheromoneOperators
         double mu, 
         Weights weights,
         Path bestInColonyCBO,
-        Path bestInColonyNAC )
+        Path bestInColonyNAC,
+        RandomStream random )
     {
         if( AlgorithmParameters.pheromoneUpdate == AlgorithmParameters.PheromoneUpdate.ParetoBased )
         {
-            performParetoDominationBasedUpdate( colony, pheromoneTable, mu, weights );
+            performParetoDominationBasedUpdate( colony, pheromoneTable, mu, weights, random );
         }
         else if( AlgorithmParameters.pheromoneUpdate == AlgorithmParameters.PheromoneUpdate.SO )
         {
@@ -727,7 +839,11 @@ public class PheromoneOperators
     
     
     private static void performParetoDominationBasedUpdate( 
-        List< Path > colony, PheromoneTable pheromoneTable, double mu, Weights weights )
+        List< Path > colony, 
+        PheromoneTable pheromoneTable, 
+        double mu, 
+        Weights weights,
+        RandomStream random )
     {
          //domination counts are already calculated in the deamon actions
 //          ParetoOperators.calculateDominationCount2( colony );
@@ -749,7 +865,7 @@ public class PheromoneOperators
                 int numberOfPaths = list.size( );
                 assert numberOfPaths > 0;
                 // select one at random from this list
-                final int randomSelection = Utility.getRandomInRange( 1, numberOfPaths );
+                final int randomSelection = Utility.getRandomInRange( random, 1, numberOfPaths );
                 assert randomSelection <= numberOfPaths;
                 Path path = list.get( randomSelection - 1 );
 
@@ -29,24 +29,90 @@ public class PheromoneTable
     /**
      * 'x' coordinate is 'from'
      * 'y' coordinate is 'to'
+     * 
+     * the table is symmetric, so is held by 
+     * triangular storage, in one array, or for very large problems, 
+     * as the cells that differ from a common baseline
      */
-    private double[ ][ ] table; 
+    private CellStore table; 
     
     /** list of attributes and methods */
     private List< Node > amList;
     
+    /** for the use matrix, should the table be initialised again */
+    private final ProblemController problemController;
+    
+    /** name of the file to map the table to, or null */
+    private final String mappedFileName;
+    
       
     /** size of both 'x' and 'y' dimensions of table */
     private final int size;
     
+    /** number of the first end of class marker */
+    private final int firstEndOfClass;
+    
+    /** 
+     * the index in the storage of each node, or -1 
+     * for nodes of frozen classes, which are left out of the storage 
+     * when the table is reduced. The nodes kept are in the same order,
+     * so the end of class markers still come last.
+     */
+    private int[ ] storeIndex;
+    
+    /** index in the storage of the first end of class marker kept */
+    private int storeFirstEndOfClass;
+    
+    /** 
+     * cells set since the changes were last cleared, as x * n + y, where
+     * n is the size of the storage and x and y are storage indices, x 
+     * greater than y, so that an alpha table can recompute only 
+     * those cells. A cell set twice is listed twice. Beyond a quarter 
+     * of the table, the whole table is taken to have changed.
+     */
+    private long[ ] changedCells;
+    private int numberOfChangedCells;
+    private final int maximumChangedCells;
+    private boolean allChanged;
+    
+    private static final int INITIAL_CHANGED_CELLS = 64;
+    
+    /** 
+     * cells decayed by local updates, listed by each thread that made 
+     * them, and merged into the changed cells once the ants have finished
+     */
+    private final ThreadLocal< LocalChanges > localChanges;
+    private final List< LocalChanges > allLocalChanges;
+    
+    /** product of the uniform scale factors since the changes were last cleared */
+    private double scaleSinceCleared;
+    
+    /** 
+     * every value in the table is multiplied by
+     * this scale when read, so that uniform evaporation need not 
+     * rewrite every cell. Folded into the cells when it gets tiny.
+     */
+    private double scale;
+    private static final double SMALLEST_SCALE = 1.0e-100;
+    
+    /** lowest and highest values in the table, kept as the table is set */
+    private double lowest;
+    private double highest;
+    private boolean statisticsStale;
+    
     /**
      * construct a pheromone table
      * @param attribute and method list
      * @param numberOfClasses 
      * @param problem controller
+     * @param name of the file to map the table to, should the 
+     * storage be mapped, e.g. one for each colony
      */
     public PheromoneTable( 
-        List< Node > amList, int numberOfClasses, ProblemController problemController )
+        List< Node > amList, 
+        int numberOfClasses, 
+        ProblemController problemController, 
+        String mappedFileName )
     {
        assert amList != null;
        assert amList.size( ) > 0;
@@ -54,26 +120,104 @@ public class PheromoneTable
        assert problemController != null;
        
        this.amList = amList;
+       this.problemController = problemController;
+       this.mappedFileName = mappedFileName;
 //       this.numberOfClasses = numberOfClasses; no longer required 17 January 2012
        
        this.size = amList.size( ) + numberOfClasses + 1; // plus one for the nest
+       this.firstEndOfClass = amList.size( ) + 1;
+       // all nodes are stored until the table is reduced
+       storeIndex = new int[ size ];
        
-       table = new double[ size ][ size ];
-       
-       for( int i = 0; i < size; i++ )
+       for( int number = 0; number < size; number++ )
        {
-           for( int j = 0; j < size; j++ )
-           {
-               table[ i ][ j ] = 0.0;
-           }
+           storeIndex[ number ] = number;
        }
        
+       storeFirstEndOfClass = firstEndOfClass;
+       
+       // all cells are initially zero
+       table = createCellStore( size, firstEndOfClass, 
+           AlgorithmParameters.singlePrecisionPheromone, mappedFileName );
+       
+       scale = 1.0;
        initialisePheromone( problemController );
        
+       statisticsStale = true;
+       
+       final long quarter = (long) size * size / 4 + 1;
+       maximumChangedCells = (int) Math.min( quarter, Integer.MAX_VALUE - 8 );
+       changedCells = new long[ Math.min( INITIAL_CHANGED_CELLS, maximumChangedCells ) ];
+       clearChanges( );
+       allChanged = true;
+       
+       allLocalChanges = Collections.synchronizedList( new ArrayList< LocalChanges >( ) );
+       localChanges = new ThreadLocal< LocalChanges >( )
+       {
+           @Override
+           protected LocalChanges initialValue( )
+           {
+               LocalChanges result = new LocalChanges( maximumChangedCells );
+               allLocalChanges.add( result );
+               return result;
+           }
+       };
+       
        // for testing
 //       show( );
     }  
     
+    /**
+     * create the storage for a table of pheromone, of the kind 
+     * chosen in the algorithm parameters
+     * @param size of both dimensions of the table
+     * @param number of the first end of class marker
+     * @param single precision, i.e. floats rather than doubles,
+     * where the kind of storage allows
+     * @param name of the file to map the pheromone itself to, where
+     * other processes can read it, or null for a private copy, e.g. 
+     * an alpha table
+     * @return the storage, all cells initially zero
+     */
+    static CellStore createCellStore( 
+        int size, int firstEndOfClass, boolean singlePrecision, String mappedFileName )
+    {
+        CellStore result = null;
+        
+        // ants updating the table as they go need atomic cells
+        if( AlgorithmParameters.localPheromoneUpdate == true )
+        {
+            return new AtomicCellStore( size, firstEndOfClass );
+        }
+        
+        switch( AlgorithmParameters.pheromoneStorage )
+        {
+            case dense:
+                result = new DenseCellStore( size, firstEndOfClass, singlePrecision );
+                break;
+                
+            case sparse:
+                result = new SparseCellStore( size, firstEndOfClass );
+                break;
+                
+            case mapped:
+                if( mappedFileName != null )
+                {
+                    result = new MappedCellStore( mappedFileName, size, firstEndOfClass );
+                }
+                else
+                {
+                    result = new DenseCellStore( size, firstEndOfClass, singlePrecision );
+                }
+                break;
+                
+            default:
+                assert false : "impossible kind of pheromone storage";
+        }
+        
+        return result;
+    }
+    
     /**
      * initialise the pheromone with heuristics
      * @param problemController 
@@ -87,31 +231,61 @@ public class PheromoneTable
         setUseTableHeuristics( problemController );
     } 
    
+    /**
+     * initialise the pheromone again, e.g. to restart a stagnant
+     * search, keeping any reduction for frozen classes
+     */
+    public void reinitialise( )
+    {
+        scale = 1.0;
+        publishScale( );
+        
+        initialisePheromone( problemController );
+        
+        statisticsStale = true;
+        numberOfChangedCells = 0;
+        allChanged = true;
+    }
+    
+    /**
+     * set a probability while initialising, through the 
+     * storage index, without recording the change
+     * @param x
+     * @param y
+     * @param probability 
+     */
+    private void setInitial( int x, int y, double probability )
+    {
+        final int i = storeIndex[ x ];
+        final int j = storeIndex[ y ];
+        
+        if( i >= 0 && j >= 0 )
+        {
+            table.set( i, j, probability / scale );
+        }
+    }
+    
     /**
      * set up the initial default probabilities
      */
     private void setInitialProbabilities( )
     {
-        for( int i = 0; i < size; i++ )
+        // every cell at once, which for sparse
+        // storage becomes the baseline
+        if( AlgorithmParameters.algorithm == AlgorithmParameters.algorithm.MMAS )
         {
-            for( int j = 0; j < size; j++ )
-            {
-                if( AlgorithmParameters.algorithm == AlgorithmParameters.algorithm.MMAS )
-                {
-                    table[ i ][ j ] = MMAS_INITIAL_PROBABILITY;
-                }
-                else
-                {
-                    table[ i ][ j ] = INITIAL_PROBABILITY;
-                }
-           }
-       }
+            table.fill( MMAS_INITIAL_PROBABILITY );
+        }
+        else
+        {
+            table.fill( INITIAL_PROBABILITY );
+        }
        
        // but the same 'x' and 'y' coordinate is not
        // logically feasible, so set to 0.0
        for( int k = 0; k < size; k++ )
        {
-           table[ k ][ k ] = 0.0;
+           setInitial( k, k, 0.0 );
        }
        
     }
@@ -128,7 +302,7 @@ public class PheromoneTable
        {
            for( int j = start; j < size; j++ )
            {
-                table[ i ][ j ] = 0.0;
+                setInitial( i, j, 0.0 );
            }
        }   
     }
@@ -165,10 +339,14 @@ public class PheromoneTable
                 if( useMatrix[ i ][ j ] == 1 )
                 {
                     // from methods to attributes firstly
-                    table[ i ][ j + actionListSize - 1 ] *= HEURISTIC_LOAD_FACTOR;
+                    final int x1 = i;
+                    final int y1 = j + actionListSize - 1;
+                    setInitial( x1, y1, getProbabilityAt( x1, y1 ) * HEURISTIC_LOAD_FACTOR );
                     
                     // from attributes to methods secondly
-                    table[ i + datumListSize - 1 ][ j ] *= HEURISTIC_LOAD_FACTOR; 
+                    final int x2 = i + datumListSize - 1;
+                    final int y2 = j;
+                    setInitial( x2, y2, getProbabilityAt( x2, y2 ) * HEURISTIC_LOAD_FACTOR );
                 }
             }
         }
@@ -189,7 +367,7 @@ public class PheromoneTable
             System.out.print("\t" + "Row: " + i + ": " );
             for( int j = 0; j < size(); j++ )
             {
-                System.out.print( df.format( table[ i ][ j ] ) );
+                System.out.print( df.format( getProbabilityAt( i, j ) ) );
                 System.out.print(" ");
             }
             System.out.println( );
@@ -205,11 +383,20 @@ public class PheromoneTable
         assert x >= 0 && x < size : "x is: " + x + ", and y is: " + y;
         assert y >= 0 && y < size : "x is: " + x + ", and y is: " + y;
         
-        return table[ x ][ y ];
+        final int i = storeIndex[ x ];
+        final int j = storeIndex[ y ];
+        
+        // nodes of frozen classes are not stored once the table is reduced
+        return i >= 0 && j >= 0 ? table.get( i, j ) * scale : 0.0;
     }
     
     /**
      * update a probability at x, y coordinate 
+     * 
+     * this also updates the probability at y, x.
+     * A probability from one end of class marker to another, 
+     * or from a node to itself, is always zero.
+     * 
      * @param new value of probability at x, y coordinate
      */
     public void setProbabilityAt( int x, int y, double probability )
@@ -217,10 +404,497 @@ public class PheromoneTable
         assert x >= 0 && x < size : "x is: " + x + ", and y is: " + y;
         assert y >= 0 && y < size : "x is: " + x + ", and y is: " + y;
         assert probability >= 0.0;
+        
+        final int i = storeIndex[ x ];
+        final int j = storeIndex[ y ];
+        
+        if( i < 0 || j < 0 )
+        {
+            // a node of a frozen class, not stored once the table is reduced
+            return;
+        }
 
-        table[ x ][ y ] = probability;
+        final double previous = table.get( i, j ) * scale;
+        table.set( i, j, probability / scale );
+        
+        // the value as stored, e.g. in single precision
+        probability = table.get( i, j ) * scale;
+        
+        markChanged( i, j );
+        
+        // the statistics can follow any change, except 
+        // the highest value falling or the lowest rising
+        if( ( previous == highest && probability < previous ) ||
+            ( previous == lowest && probability > previous ) )
+        {
+            statisticsStale = true;
+        }
+        
+        if( probability > highest )
+        {
+            highest = probability;
+        }
+        
+        if( probability < lowest )
+        {
+            lowest = probability;
+        }
+    }
+    
+    /**
+     * multiply every probability by the same factor, 
+     * e.g. for uniform evaporation
+     * @param factor 
+     */
+    public void scaleAll( double factor )
+    {
+        assert factor >= 0.0;
+        
+        if( factor == 0.0 )
+        {
+            // everything evaporates
+            table.multiplyAll( 0.0 );
+            
+            scale = 1.0;
+            scaleSinceCleared = 0.0;
+            setStatistics( 0.0, 0.0 );
+            publishScale( );
+            return;
+        }
+        
+        scale *= factor;
+        scaleSinceCleared *= factor;
+        lowest *= factor;
+        highest *= factor;
+        
+        if( scale < SMALLEST_SCALE )
+        {
+            table.multiplyAll( scale );
+            scale = 1.0;
+        }
+        
+        publishScale( );
+    }
+    
+    /**
+     * record the scale alongside the cells, where 
+     * other processes can read the table
+     */
+    private void publishScale( )
+    {
+        if( table instanceof MappedCellStore )
+        {
+            ( (MappedCellStore) table ).setScale( scale );
+        }
+    }
+    
+    /**
+     * @return lowest value in the table
+     */
+    public double getLowest( )
+    {
+        if( statisticsStale == true )
+        {
+            calculateStatistics( );
+        }
+        
+        return lowest;
+    }
+    
+    /**
+     * @return highest value in the table
+     */
+    public double getHighest( )
+    {
+        if( statisticsStale == true )
+        {
+            calculateStatistics( );
+        }
+        
+        return highest;
+    }
+    
+    /**
+     * set the lowest and highest values, when they are known
+     * after setting every cell in the table
+     * @param lowest
+     * @param highest 
+     */
+    public void setStatistics( double lowest, double highest )
+    {
+        assert lowest <= highest;
+        this.lowest = lowest;
+        this.highest = highest;
+        statisticsStale = false;
+    }
+    
+    /**
+     * find the lowest and highest values by a scan of the table
+     */
+    private void calculateStatistics( )
+    {
+        // the cells not stored, e.g. the diagonal, are zero
+        final double low = Math.min( 0.0, table.getLowest( ) * scale );
+        final double high = table.getHighest( ) * scale;
+        
+        setStatistics( low, high );
+    }
+    
+    /**
+     * an ACS style local update, as an ant moves from x to y, which 
+     * moves the probability part of the way down towards a target. 
+     * Safe for many ants to call at once while they construct their 
+     * paths; nothing else may change the table meanwhile. Each thread
+     * lists the cells it decays, for endLocalUpdates to record.
+     * @param x
+     * @param y
+     * @param rate, the part of the way to move
+     * @param target, the probability is never taken below it
+     * @return new probability at x, y
+     */
+    public double decayTowards( int x, int y, double rate, double target )
+    {
+        assert table instanceof AtomicCellStore : "local updates need atomic cells";
+        
+        final int i = storeIndex[ x ];
+        final int j = storeIndex[ y ];
+        
+        if( i < 0 || j < 0 )
+        {
+            return 0.0;
+        }
+        
+        final AtomicCellStore cells = (AtomicCellStore) table;
+        final double result = cells.decayTowards( i, j, rate, target / scale ) * scale;
+        
+        if( table.isStored( i, j ) == true )
+        {
+            localChanges.get( ).add( cellOf( i, j ) );
+        }
+        
+        return result;
+    }
+    
+    /**
+     * take account of the local updates since the last call, once 
+     * the ants have finished constructing, by recording the cells 
+     * listed by each thread as changed
+     */
+    public void endLocalUpdates( )
+    {
+        statisticsStale = true;
+        
+        synchronized( allLocalChanges )
+        {
+            for( LocalChanges changes : allLocalChanges )
+            {
+                if( changes.overflowed == true )
+                {
+                    allChanged = true;
+                }
+                
+                for( int k = 0; k < changes.count && allChanged == false; k++ )
+                {
+                    addChangedCell( changes.cells[ k ] );
+                }
+                
+                changes.clear( );
+            }
+        }
+    }
+    
+    /**
+     * apply a function to every cell that can hold a value other than
+     * zero, e.g. for elitist evaporation
+     * @param function
+     */
+    public void transformAll( CellFunction function )
+    {
+        assert function != null;
+        
+        // the function applies to the values as read
+        if( scale != 1.0 )
+        {
+            table.multiplyAll( scale );
+            scale = 1.0;
+            publishScale( );
+        }
+        
+        final double[ ] lowestHighest = new double[ 2 ];
+        table.transformAll( function, lowestHighest );
+        
+        // the cells not stored, such as the diagonal, stay at zero
+        setStatistics( Math.min( 0.0, lowestHighest[ 0 ] ), lowestHighest[ 1 ] );
+        allChanged = true;
+    }
+    
+    /**
+     * reduce the table to the nodes that are not in frozen classes, or 
+     * expand it again as classes are unfrozen. The nodes kept are the 
+     * nest, the attributes and methods not frozen, and the end of class 
+     * markers from the one closing the frozen classes onwards. Their
+     * probabilities are kept; the probabilities of nodes that come back
+     * into the table start again from the initial probability.
+     * @param the frozen elements of the iteration
+     * @return true if the table has changed
+     */
+    public boolean reduceTo( FrozenElements frozen )
+    {
+        assert frozen != null;
+        
+        // the first end of class kept is the one closing the last 
+        // frozen class, which ants move on from
+        final int firstEndOfClassKept = 
+            firstEndOfClass + Math.max( frozen.getNumberOfClasses( ) - 1, 0 );
+        
+        final int[ ] newIndex = new int[ size ];
+        int newSize = 0;
+        int newFirstEndOfClass = 0;
+        
+        for( int number = 0; number < size; number++ )
+        {
+            if( number == firstEndOfClass )
+            {
+                newFirstEndOfClass = newSize;
+            }
+            
+            if( number < firstEndOfClass ? 
+                    frozen.isFrozen( number ) : number < firstEndOfClassKept )
+            {
+                newIndex[ number ] = -1;
+            }
+            else
+            {
+                newIndex[ number ] = newSize++;
+            }
+        }
+        
+        if( Arrays.equals( newIndex, storeIndex ) )
+        {
+            return false;
+        }
+        
+        // a memory mapped store shares its file, and its mapping, 
+        // with its replacement, so take a copy on the heap first
+        CellStore old = table;
+        
+        if( old instanceof MappedCellStore )
+        {
+            old = new DenseCellStore( old.size( ), storeFirstEndOfClass, false );
+            old.assignTransformed( table, new CellFunction( )
+            {
+                @Override
+                public double apply( double value )
+                {
+                    return value;
+                }
+            } );
+        }
+        
+        final CellStore reduced = createCellStore( newSize, newFirstEndOfClass, 
+            AlgorithmParameters.singlePrecisionPheromone, mappedFileName );
+        
+        final double initial = 
+            AlgorithmParameters.algorithm == AlgorithmParameters.Algorithm.MMAS ?
+                MMAS_INITIAL_PROBABILITY : INITIAL_PROBABILITY;
+        reduced.fill( initial / scale );
+        
+        for( int x = 0; x < size; x++ )
+        {
+            if( newIndex[ x ] < 0 || storeIndex[ x ] < 0 )
+            {
+                continue;
+            }
+            
+            for( int y = 0; y < x; y++ )
+            {
+                if( newIndex[ y ] >= 0 && storeIndex[ y ] >= 0 )
+                {
+                    reduced.set( newIndex[ x ], newIndex[ y ], 
+                        old.get( storeIndex[ x ], storeIndex[ y ] ) );
+                }
+            }
+        }
+        
+        table = reduced;
+        storeIndex = newIndex;
+        storeFirstEndOfClass = newFirstEndOfClass;
+        
+        publishScale( );
+        statisticsStale = true;
+        numberOfChangedCells = 0;
+        allChanged = true;
+        
+        return true;
+    }
+    
+    /**
+     * record that a cell has been set
+     * @param x
+     * @param y 
+     */
+    private void markChanged( int x, int y )
+    {
+        if( allChanged == true || table.isStored( x, y ) == false )
+        {
+            return;
+        }
+        
+        addChangedCell( cellOf( x, y ) );
+    }
+    
+    /**
+     * @param x, a storage index
+     * @param y, a storage index
+     * @return the cell, as x * n + y, where n is the size of the 
+     * storage, x greater than y
+     */
+    private long cellOf( int x, int y )
+    {
+        return (long) Math.max( x, y ) * table.size( ) + Math.min( x, y );
+    }
+    
+    /**
+     * list a changed cell, or once too many are listed, 
+     * take the whole table to have changed
+     * @param the cell, as x * n + y
+     */
+    private void addChangedCell( long cell )
+    {
+        if( numberOfChangedCells == changedCells.length )
+        {
+            if( changedCells.length == maximumChangedCells )
+            {
+                allChanged = true;
+                return;
+            }
+            
+            final long grown = Math.min( 2L * changedCells.length, maximumChangedCells );
+            changedCells = Arrays.copyOf( changedCells, (int) grown );
+        }
+        
+        changedCells[ numberOfChangedCells++ ] = cell;
+    }
+    
+    /**
+     * @return true if too many cells have been set since the 
+     * changes were last cleared to list them
+     */
+    public boolean isAllChanged( )
+    {
+        return allChanged;
+    }
+    
+    /**
+     * @return number of cells set since the changes were last cleared
+     */
+    public int getNumberOfChangedCells( )
+    {
+        return numberOfChangedCells;
+    }
+    
+    /**
+     * @param index of the changed cell, in order of change
+     * @return the cell, as x * n + y, where n is the size of the storage
+     * and x and y are storage indices, x greater than y
+     */
+    public long getChangedCell( int index )
+    {
+        assert index >= 0 && index < numberOfChangedCells;
+        return changedCells[ index ];
+    }
+    
+    /**
+     * @return product of the factors of scaleAll since the
+     * changes were last cleared
+     */
+    public double getScaleSinceCleared( )
+    {
+        return scaleSinceCleared;
+    }
+    
+    /**
+     * forget the changes, once they have been taken into account
+     */
+    public void clearChanges( )
+    {
+        numberOfChangedCells = 0;
+        allChanged = false;
+        scaleSinceCleared = 1.0;
     }
 
+    /**
+     * @return name of the file the table is mapped to, where other 
+     * processes can read it with readMapped, or null if not mapped
+     */
+    public String getMappedFileName( )
+    {
+        return table instanceof MappedCellStore ? mappedFileName : null;
+    }
+    
+    /**
+     * read a snapshot of a table mapped to a file, e.g. by another 
+     * colony or another process; cells may be caught mid-update
+     * @param name of the file, as given by getMappedFileName
+     * @return the probabilities, by index in the storage, which is 
+     * the node number unless the table is reduced for frozen classes
+     * @throws IllegalArgumentException if the file is not a whole 
+     * pheromone file
+     */
+    public static double[ ][ ] readMapped( String fileName )
+    {
+        assert fileName != null;
+        
+        final MappedCellStore store = MappedCellStore.attach( fileName );
+        final double storeScale = store.getScale( );
+        final int n = store.size( );
+        
+        double[ ][ ] result = new double[ n ][ n ];
+        
+        for( int x = 0; x < n; x++ )
+        {
+            for( int y = 0; y < n; y++ )
+            {
+                result[ x ][ y ] = store.get( x, y ) * storeScale;
+            }
+        }
+        
+        return result;
+    }
+    
+    /**
+     * @return the storage of the table, as raw values before the scale
+     */
+    CellStore getStore( )
+    {
+        return table;
+    }
+    
+    /**
+     * @return the index in the storage of each node, or -1 if the 
+     * node is not stored. Shared, not to be changed.
+     */
+    int[ ] getStoreIndex( )
+    {
+        return storeIndex;
+    }
+    
+    /**
+     * @return index in the storage of the first end of class marker kept
+     */
+    int getStoreFirstEndOfClass( )
+    {
+        return storeFirstEndOfClass;
+    }
+    
+    /**
+     * @return the scale by which every raw value is multiplied when read
+     */
+    double getScale( )
+    {
+        return scale;
+    }
+    
     /**
      * @return the size
      */
@@ -229,6 +903,48 @@ public class PheromoneTable
         return size;
     }
     
+    /**
+     * the cells decayed by the local updates of one thread
+     */
+    private static class LocalChanges
+    {
+        /** the cells, as x * n + y, a cell decayed twice listed twice */
+        private long[ ] cells = new long[ INITIAL_CHANGED_CELLS ];
+        private int count = 0;
+        
+        /** more cells than the table would list, so all have changed */
+        private boolean overflowed = false;
+        
+        private final int maximum;
+        
+        LocalChanges( int maximum )
+        {
+            this.maximum = maximum;
+        }
+        
+        void add( long cell )
+        {
+            if( count == cells.length )
+            {
+                if( count >= maximum )
+                {
+                    overflowed = true;
+                    return;
+                }
+                
+                cells = Arrays.copyOf( cells, (int) Math.min( 2L * count, maximum ) );
+            }
+            
+            cells[ count++ ] = cell;
+        }
+        
+        void clear( )
+        {
+            count = 0;
+            overflowed = false;
+        }
+    }
+    
 }   // end class
 
 //------- end file ----------------------------------------
@@ -0,0 +1,415 @@
+/*
+ * SparseCellStore.java
+ * 18 October 2026
+ */
+
+package pheromone;
+
+import java.util.Arrays;
+
+/**
+ * Sparse storage for the values of a symmetric pheromone table, for
+ * design problems too large for a dense table. Every cell shares one
+ * baseline value, e.g. the initial or MMAS bound, and only the cells
+ * set to some other value are held, in an open addressing hash table.
+ * A cell that returns to the baseline is no longer held, so that the
+ * table only grows with the number of cells that differ from it.
+ *
+ * As for the dense store, cell x, y and cell y, x are the same cell,
+ * and the diagonal and the block from one end of class marker to
+ * another are always zero. Values are always held in double precision.
+ *
+ * @author Christopher Simons
+ */
+
+public class SparseCellStore implements CellStore
+{
+    /** key of an empty slot in the hash table */
+    private static final long EMPTY = -1L;
+
+    /** initial number of slots, a power of two */
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /** size of both 'x' and 'y' dimensions of the table */
+    private final int size;
+
+    /** number of nodes that are not end of class markers */
+    private final int firstEndOfClass;
+
+    /** number of cells that can hold a value other than zero */
+    private final long numberOfCells;
+
+    /** value of every cell not held in the hash table */
+    private double baseline;
+
+    /** the cells held, keyed by i * size + j with i greater than j */
+    private long[ ] keys;
+    private double[ ] values;
+    private int numberOfEntries;
+
+    /**
+     * constructor, all cells are initially zero
+     * @param size of both dimensions of the table
+     * @param number of the first end of class marker
+     */
+    public SparseCellStore( int size, int firstEndOfClass )
+    {
+        assert firstEndOfClass > 0;
+        assert firstEndOfClass < size;
+
+        this.size = size;
+        this.firstEndOfClass = firstEndOfClass;
+
+        final long k = firstEndOfClass;
+        numberOfCells = k * ( k - 1 ) / 2 + ( size - k ) * k;
+
+        baseline = 0.0;
+        allocate( INITIAL_CAPACITY );
+    }
+
+    private void allocate( int capacity )
+    {
+        keys = new long[ capacity ];
+        Arrays.fill( keys, EMPTY );
+        values = new double[ capacity ];
+        numberOfEntries = 0;
+    }
+
+    /**
+     * @param x
+     * @param y
+     * @return key of the cell, or EMPTY if the cell is not stored
+     */
+    private long keyOf( int x, int y )
+    {
+        assert x >= 0 && x < size : "x is: " + x + ", and y is: " + y;
+        assert y >= 0 && y < size : "x is: " + x + ", and y is: " + y;
+
+        final int i = Math.max( x, y );
+        final int j = Math.min( x, y );
+
+        long result = EMPTY;
+
+        if( i != j && j < firstEndOfClass )
+        {
+            result = (long) i * size + j;
+        }
+
+        return result;
+    }
+
+    /**
+     * @param key
+     * @return slot at which the search for the key starts
+     */
+    private int homeSlotOf( long key )
+    {
+        // the finalising mix of MurmurHash3, to spread the keys
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+
+        return (int) h & ( keys.length - 1 );
+    }
+
+    /**
+     * @param key
+     * @return slot of the key, or of the empty slot where it would go
+     */
+    private int slotOf( long key )
+    {
+        final int mask = keys.length - 1;
+        int slot = homeSlotOf( key );
+
+        while( keys[ slot ] != EMPTY && keys[ slot ] != key )
+        {
+            slot = ( slot + 1 ) & mask;
+        }
+
+        return slot;
+    }
+
+    @Override
+    public boolean isStored( int x, int y )
+    {
+        return keyOf( x, y ) != EMPTY;
+    }
+
+    @Override
+    public double get( int x, int y )
+    {
+        final long key = keyOf( x, y );
+        double result = 0.0;
+
+        if( key != EMPTY )
+        {
+            final int slot = slotOf( key );
+            result = keys[ slot ] == key ? values[ slot ] : baseline;
+        }
+
+        return result;
+    }
+
+    @Override
+    public void set( int x, int y, double value )
+    {
+        final long key = keyOf( x, y );
+
+        if( key == EMPTY )
+        {
+            return;
+        }
+
+        int slot = slotOf( key );
+
+        if( keys[ slot ] == key )
+        {
+            if( value != baseline )
+            {
+                values[ slot ] = value;
+            }
+            else
+            {
+                removeSlot( slot );
+            }
+        }
+        else if( value != baseline )
+        {
+            // keep the load factor at one half or below
+            if( ( numberOfEntries + 1 ) * 2 > keys.length )
+            {
+                resize( keys.length * 2 );
+                slot = slotOf( key );
+            }
+
+            keys[ slot ] = key;
+            values[ slot ] = value;
+            numberOfEntries++;
+        }
+    }
+
+    /**
+     * empty a slot, shifting back any later entries of the same run
+     * that could no longer be found past the empty slot
+     * @param slot
+     */
+    private void removeSlot( int slot )
+    {
+        final int mask = keys.length - 1;
+        int hole = slot;
+        int next = ( hole + 1 ) & mask;
+
+        while( keys[ next ] != EMPTY )
+        {
+            final int home = homeSlotOf( keys[ next ] );
+
+            // the entry may fill the hole unless its home
+            // lies cyclically after the hole, up to the entry
+            if( ( ( next - home ) & mask ) >= ( ( next - hole ) & mask ) )
+            {
+                keys[ hole ] = keys[ next ];
+                values[ hole ] = values[ next ];
+                hole = next;
+            }
+
+            next = ( next + 1 ) & mask;
+        }
+
+        keys[ hole ] = EMPTY;
+        values[ hole ] = 0.0;
+        numberOfEntries--;
+    }
+
+    /**
+     * hold the entries again, in a table of the given number of slots,
+     * leaving out any that are now at the baseline
+     * @param capacity, a power of two
+     */
+    private void resize( int capacity )
+    {
+        final long[ ] oldKeys = keys;
+        final double[ ] oldValues = values;
+        allocate( capacity );
+
+        for( int k = 0; k < oldKeys.length; k++ )
+        {
+            if( oldKeys[ k ] != EMPTY && oldValues[ k ] != baseline )
+            {
+                final int slot = slotOf( oldKeys[ k ] );
+                keys[ slot ] = oldKeys[ k ];
+                values[ slot ] = oldValues[ k ];
+                numberOfEntries++;
+            }
+        }
+    }
+
+    @Override
+    public void fill( double value )
+    {
+        baseline = value;
+
+        if( numberOfEntries > 0 )
+        {
+            allocate( INITIAL_CAPACITY );
+        }
+    }
+
+    @Override
+    public void multiplyAll( double factor )
+    {
+        baseline *= factor;
+
+        for( int k = 0; k < keys.length; k++ )
+        {
+            values[ k ] *= factor;
+        }
+
+        compact( );
+    }
+
+    /**
+     * stop holding the cells that an operation on every cell has brought
+     * to the baseline, and shrink the hash table to suit those left
+     */
+    private void compact( )
+    {
+        int held = 0;
+
+        for( int k = 0; k < keys.length; k++ )
+        {
+            if( keys[ k ] != EMPTY && values[ k ] != baseline )
+            {
+                held++;
+            }
+        }
+
+        if( held < numberOfEntries )
+        {
+            int capacity = INITIAL_CAPACITY;
+
+            while( held * 2 > capacity )
+            {
+                capacity *= 2;
+            }
+
+            resize( capacity );
+        }
+    }
+
+    @Override
+    public void transformAll( CellFunction function, double[ ] lowestHighest )
+    {
+        baseline = function.apply( baseline );
+
+        for( int k = 0; k < keys.length; k++ )
+        {
+            if( keys[ k ] != EMPTY )
+            {
+                values[ k ] = function.apply( values[ k ] );
+            }
+        }
+
+        compact( );
+
+        lowestHighest[ 0 ] = getLowest( );
+        lowestHighest[ 1 ] = getHighest( );
+    }
+
+    @Override
+    public void assignTransformed( CellStore source, CellFunction function )
+    {
+        assert source instanceof SparseCellStore;
+        final SparseCellStore other = (SparseCellStore) source;
+        assert other.size == size && other.firstEndOfClass == firstEndOfClass;
+
+        // the same cells, in the same slots
+        if( keys.length != other.keys.length )
+        {
+            keys = new long[ other.keys.length ];
+            values = new double[ other.keys.length ];
+        }
+
+        System.arraycopy( other.keys, 0, keys, 0, keys.length );
+        numberOfEntries = other.numberOfEntries;
+        baseline = function.apply( other.baseline );
+
+        for( int k = 0; k < keys.length; k++ )
+        {
+            values[ k ] = keys[ k ] != EMPTY ? function.apply( other.values[ k ] ) : 0.0;
+        }
+
+        compact( );
+    }
+
+    @Override
+    public void getColumnMaxima( double[ ] maxima )
+    {
+        assert maxima.length == size;
+
+        // every column has cells at the baseline, or
+        // held cells that only raise the upper bound
+        Arrays.fill( maxima, Math.max( baseline, 0.0 ) );
+
+        for( int k = 0; k < keys.length; k++ )
+        {
+            if( keys[ k ] != EMPTY )
+            {
+                final int i = (int) ( keys[ k ] / size );
+                final int j = (int) ( keys[ k ] % size );
+
+                maxima[ i ] = Math.max( maxima[ i ], values[ k ] );
+                maxima[ j ] = Math.max( maxima[ j ], values[ k ] );
+            }
+        }
+    }
+
+    @Override
+    public double getLowest( )
+    {
+        double result = numberOfEntries < numberOfCells ? baseline : Double.MAX_VALUE;
+
+        for( int k = 0; k < keys.length; k++ )
+        {
+            if( keys[ k ] != EMPTY )
+            {
+                result = Math.min( result, values[ k ] );
+            }
+        }
+
+        return numberOfCells > 0 ? result : 0.0;
+    }
+
+    @Override
+    public double getHighest( )
+    {
+        double result = numberOfEntries < numberOfCells ? baseline : 0.0;
+
+        for( int k = 0; k < keys.length; k++ )
+        {
+            if( keys[ k ] != EMPTY )
+            {
+                result = Math.max( result, values[ k ] );
+            }
+        }
+
+        return Math.max( result, 0.0 );
+    }
+
+    /**
+     * @return number of cells held apart from the baseline
+     */
+    public int getNumberOfEntries( )
+    {
+        return numberOfEntries;
+    }
+
+    @Override
+    public int size( )
+    {
+        return size;
+    }
+
+}   // end class
+
+//------- end file ----------------------------------------
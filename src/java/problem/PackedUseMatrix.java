@@ -0,0 +1,160 @@
+/*
+ * PackedUseMatrix.java
+ * 18 October 2026
+ */
+
+package problem;
+
+/**
+ * The use matrix, actions by data, packed as bits, so that each action
+ * row is a bitset of the data it uses, 64 data to a long word.
+ *
+ * The uses of a set of data by an action, e.g. the attributes of a class
+ * by one of its methods, are then counted a word at a time, by an AND
+ * of the row with the set and a population count.
+ *
+ * @author Christopher Simons
+ */
+
+public class PackedUseMatrix
+{
+    /** number of actions, i.e. rows */
+    private final int numberOfActions;
+
+    /** number of data, i.e. columns */
+    private final int numberOfData;
+
+    /** number of long words in each row */
+    private final int wordsPerRow;
+
+    /** the rows, one after another */
+    private final long[ ] bits;
+
+    /**
+     * constructor
+     * @param use matrix, actions by data, of zeros and ones
+     */
+    public PackedUseMatrix( int[ ][ ] useMatrix )
+    {
+        assert useMatrix != null;
+        assert useMatrix.length > 0;
+
+        numberOfActions = useMatrix.length;
+        numberOfData = useMatrix[ 0 ].length;
+        wordsPerRow = getWordsFor( numberOfData );
+        bits = new long[ numberOfActions * wordsPerRow ];
+
+        for( int i = 0; i < numberOfActions; i++ )
+        {
+            assert useMatrix[ i ].length == numberOfData;
+
+            for( int j = 0; j < numberOfData; j++ )
+            {
+                if( useMatrix[ i ][ j ] == 1 )
+                {
+                    bits[ i * wordsPerRow + ( j >>> 6 ) ] |= 1L << j;
+                }
+            }
+        }
+    }
+
+    /**
+     * @param number of data
+     * @return number of long words in a bitset of that many data
+     */
+    public static int getWordsFor( int numberOfData )
+    {
+        assert numberOfData >= 0;
+        return ( numberOfData + 63 ) >>> 6;
+    }
+
+    /**
+     * @return number of long words in each row,
+     * and in each set of data counted against a row
+     */
+    public int getWordsPerRow( )
+    {
+        return wordsPerRow;
+    }
+
+    /**
+     * @return number of actions, i.e. rows
+     */
+    public int getNumberOfActions( )
+    {
+        return numberOfActions;
+    }
+
+    /**
+     * @return number of data, i.e. columns
+     */
+    public int getNumberOfData( )
+    {
+        return numberOfData;
+    }
+
+    /**
+     * @param action number
+     * @param datum number
+     * @return true if the action uses the datum
+     */
+    public boolean uses( int action, int datum )
+    {
+        assert action >= 0 && action < numberOfActions;
+        assert datum >= 0 && datum < numberOfData;
+
+        return ( bits[ action * wordsPerRow + ( datum >>> 6 ) ] & ( 1L << datum ) ) != 0L;
+    }
+
+    /**
+     * count the uses by an action of a set of data
+     * @param action number
+     * @param the set of data, as a bitset of getWordsPerRow long words
+     * @return number of data in the set used by the action
+     */
+    public int countUses( int action, long[ ] data )
+    {
+        assert action >= 0 && action < numberOfActions;
+        assert data != null;
+        assert data.length >= wordsPerRow;
+
+        final int base = action * wordsPerRow;
+        int result = 0;
+
+        for( int w = 0; w < wordsPerRow; w++ )
+        {
+            result += Long.bitCount( bits[ base + w ] & data[ w ] );
+        }
+
+        return result;
+    }
+
+    /**
+     * add a datum to a set of data
+     * @param the set of data, as a bitset
+     * @param datum number
+     */
+    public static void addDatum( long[ ] data, int datum )
+    {
+        assert data != null;
+        assert datum >= 0 && ( datum >>> 6 ) < data.length;
+
+        data[ datum >>> 6 ] |= 1L << datum;
+    }
+
+    /**
+     * remove a datum from a set of data
+     * @param the set of data, as a bitset
+     * @param datum number
+     */
+    public static void removeDatum( long[ ] data, int datum )
+    {
+        assert data != null;
+        assert datum >= 0 && ( datum >>> 6 ) < data.length;
+
+        data[ datum >>> 6 ] &= ~( 1L << datum );
+    }
+
+}   // end class
+
+//------- end file ----------------------------------------
@@ -39,6 +39,9 @@ public class ProblemController
     /** matrix if uses - actions x data */
     private int[ ][ ] useMatrix;
     
+    /** the use matrix packed as bits, made on first use */
+    private PackedUseMatrix packedUseMatrix;
+    
     /** number of couples in the problem,
      * calculated when the use matrix is generated
      */
@@ -73,6 +76,7 @@ public class ProblemController
         classNumber = VARIABLE_CLASS_NUMBER;
         
         useMatrix = null;   // must generate use table first!!
+        packedUseMatrix = null;
         numberOfUses = 0;
         
         
@@ -335,6 +339,7 @@ public class ProblemController
         assert this.datumList.isEmpty( ) == false;
         
         this.useMatrix = new int[ actionList.size( ) ][ datumList.size( ) ];
+        this.packedUseMatrix = null;
         System.out.println("actions: " + actionList.size( ) );
         System.out.println("data: " + datumList.size( ) );
         
@@ -385,6 +390,24 @@ public class ProblemController
         return useMatrix;
     }
     
+    /**
+     * get the use matrix packed as bits, for word parallel counting
+     * of uses; made from the use matrix when first asked for, so the
+     * use matrix must be complete by then
+     * @return packed use matrix
+     */
+    public synchronized PackedUseMatrix getPackedUseMatrix( )
+    {
+        assert useMatrix != null;
+        
+        if( packedUseMatrix == null )
+        {
+            packedUseMatrix = new PackedUseMatrix( useMatrix );
+        }
+        
+        return packedUseMatrix;
+    }
+    
     /**
      * get number of couples
      * @return number of couples
@@ -512,6 +535,7 @@ public class ProblemController
 //                    "data are: " + numberOfData );      
                 
                 useMatrix = new int[ numberOfActionsForReload ][ numberOfDataForReload ];
+                packedUseMatrix = null;
                 
                 for( int i = 0; i < numberOfActionsForReload; i++ )
                 {
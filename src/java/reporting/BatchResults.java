@@ -38,6 +38,8 @@ public class BatchResults
     private static final String SPSS_AVERAGE_OUTPUT_NAME = "AntAverageResults.dat";
     
     private static final String HEURISTIC_NAC_OUTPUT_NAME = "HeuristicResults.dat";
+    private static final String STAGNATION_OUTPUT_NAME = "StagnationResults.dat";
+    private static final String CACHE_HIT_RATE_OUTPUT_NAME = "CacheHitRates.dat";
     
     
     /** number of iterations of ant colony */
@@ -46,6 +48,12 @@ public class BatchResults
     /** number of trials conducted */
     private final int numberOfRuns; 
     
+    /** 
+     * put before the name of each results file, 
+     * e.g. so that each colony of an island model has its own files 
+     */
+    private String fileNamePrefix;
+    
     /**
      * RAW average colony design coupling in ACO search
      * [ trial ][ iteration ]
@@ -155,6 +163,18 @@ public class BatchResults
     private double[ ] finalBestEleganceModularity;
     private double[ ] finalBestEleganceModularitySD;
     
+    /** number of pheromone restarts in each run */
+    public int[ ] restartsOverRuns;
+    
+    /** number of iterations done in each run */
+    public int[ ] iterationsOverRuns;
+    
+    /**
+     * hit rate of the fitness cache
+     * [ trial ][ iteration ]
+     */
+    public double[ ][ ] fitnessCacheHitRatesOverRuns;
+    
     /**
      * constructor
      * @param number of iterations 
@@ -167,6 +187,7 @@ public class BatchResults
         
         this.numberOfIterations =  iterations;
         this.numberOfRuns = runs;
+        this.fileNamePrefix = "";
         
         averageDesignCouplingOverRuns = 
             new double[ numberOfRuns ][ numberOfIterations ];
@@ -224,6 +245,10 @@ public class BatchResults
         finalBestEleganceModularity = new double[ numberOfIterations ];
         finalBestEleganceModularitySD = new double[ numberOfIterations ];
         
+        restartsOverRuns = new int[ numberOfRuns ];
+        iterationsOverRuns = new int[ numberOfRuns ];
+        fitnessCacheHitRatesOverRuns = new double[ numberOfRuns ][ numberOfIterations ];
+        
         for( int i = 0; i < numberOfRuns; i++ )
         {
             bestCBO[ i ] = 0.0;
@@ -232,6 +257,8 @@ public class BatchResults
             whenNACFound[ i ] = 0;
             bestATMR[ i ] = 0.0;
             bestEM[ i ] = 0.0;
+            restartsOverRuns[ i ] = 0;
+            iterationsOverRuns[ i ] = numberOfIterations;
             
             for( int j = 0; j < numberOfIterations; j++ )
             {
@@ -281,6 +308,36 @@ public class BatchResults
         df = new DecimalFormat( "0.00" );
     }
     
+    /**
+     * record that a run stopped early, carrying the values of its last
+     * iteration forward, so that the runs can still be averaged over
+     * every iteration
+     * @param run number
+     * @param number of iterations done
+     */
+    public void recordStop( int run, int iterationsDone )
+    {
+        assert run >= 0 && run < numberOfRuns;
+        assert iterationsDone > 0 && iterationsDone <= numberOfIterations;
+        
+        iterationsOverRuns[ run ] = iterationsDone;
+        final int last = iterationsDone - 1;
+        
+        for( int iter = iterationsDone; iter < numberOfIterations; iter++ )
+        {
+            averageDesignCouplingOverRuns[ run ][ iter ] = 
+                averageDesignCouplingOverRuns[ run ][ last ];
+            bestDesignCouplingOverRuns[ run ][ iter ] = 
+                bestDesignCouplingOverRuns[ run ][ last ];
+            bestEleganceNACOverRuns[ run ][ iter ] = 
+                bestEleganceNACOverRuns[ run ][ last ];
+            bestEleganceATMROverRuns[ run ][ iter ] = 
+                bestEleganceATMROverRuns[ run ][ last ];
+            bestEleganceModularityOverRuns[ run ][ iter ] = 
+                bestEleganceModularityOverRuns[ run ][ last ];
+        }
+    }
+    
     /**
      * showRawResults on console 
      */
@@ -730,6 +787,15 @@ public class BatchResults
         }       
     }
     
+    /**
+     * put a prefix before the name of each results file
+     * @param prefix, e.g. "Island1-", or empty for the usual names
+     */
+    public void setFileNamePrefix( String prefix )
+    {
+        assert prefix != null;
+        this.fileNamePrefix = prefix;
+    }
     
     
     /**
@@ -756,19 +822,19 @@ public class BatchResults
         
         
         String averageCouplingFullName =  
-            Parameters.outputFilePath + "\\" + AVERAGE_COUPLING_FILE_NAME;
+            Parameters.outputFilePath + "\\" + fileNamePrefix + AVERAGE_COUPLING_FILE_NAME;
         String bestCouplingFullName =  
-            Parameters.outputFilePath + "\\" + BEST_COUPLING_FILE_NAME;
+            Parameters.outputFilePath + "\\" + fileNamePrefix + BEST_COUPLING_FILE_NAME;
         String bestNACFullName = 
-            Parameters.outputFilePath + "\\" + BEST_NAC_FILE_NAME;
+            Parameters.outputFilePath + "\\" + fileNamePrefix + BEST_NAC_FILE_NAME;
         String bestATMRFullName = 
-            Parameters.outputFilePath + "\\" + BEST_ATMR_FILE_NAME;
+            Parameters.outputFilePath + "\\" + fileNamePrefix + BEST_ATMR_FILE_NAME;
         String bestEMFullName = 
-             Parameters.outputFilePath + "\\" + BEST_EM_FILE_NAME;   
+             Parameters.outputFilePath + "\\" + fileNamePrefix + BEST_EM_FILE_NAME;   
         String spssBestOutputName =  
-            Parameters.outputFilePath + "\\" + SPSS_BEST_OUTPUT_NAME;
+            Parameters.outputFilePath + "\\" + fileNamePrefix + SPSS_BEST_OUTPUT_NAME;
         String spssAverageOutputName =  
-            Parameters.outputFilePath + "\\" + SPSS_AVERAGE_OUTPUT_NAME;
+            Parameters.outputFilePath + "\\" + fileNamePrefix + SPSS_AVERAGE_OUTPUT_NAME;
         
         
         // set up the output files
@@ -924,7 +990,7 @@ public class BatchResults
         assert path.length( ) > 0;
 
         String heuristicsNACResultsFileFullName =  
-            Parameters.outputFilePath + "\\" + HEURISTIC_NAC_OUTPUT_NAME;
+            Parameters.outputFilePath + "\\" + fileNamePrefix + HEURISTIC_NAC_OUTPUT_NAME;
         
         // set up the output files
         PrintWriter out1 = null;
@@ -971,6 +1037,80 @@ public class BatchResults
             
         out1.close( );
     }
+    
+    /**
+     * write the restarts and early stops of each run
+     * @param path 
+     */
+    public void writeStagnationResults( String path )
+    {
+        assert path != null;
+        assert path.length( ) > 0;
+
+        String stagnationResultsFileFullName =  
+            Parameters.outputFilePath + "\\" + fileNamePrefix + STAGNATION_OUTPUT_NAME;
+        
+        // don't want to overwrite existing result files
+        boolean append = true;
+        
+        try( PrintWriter out = new PrintWriter( new FileWriter( 
+                new File( stagnationResultsFileFullName ), append ) ) )
+        {
+            for( int run = 0; run < numberOfRuns; run++ )
+            {
+                out.println( ( Parameters.problemNumber + 1 ) + " " +
+                             AlgorithmParameters.stagnationAction + " " +
+                             ( run + 1 )  + " " + 
+                             this.restartsOverRuns[ run ] + " " +
+                             this.iterationsOverRuns[ run ] );
+            }
+        } 
+        catch( IOException ex ) 
+        {
+            Logger.getLogger(BatchResults.class.getName()).log(Level.SEVERE, null, ex);
+            System.err.println("Can't open " + stagnationResultsFileFullName );
+        }   
+    }
+    
+    /**
+     * write the hit rate of the fitness cache at each iteration of each
+     * run, up to the iteration at which the run stopped
+     * @param path 
+     */
+    public void writeCacheHitRates( String path )
+    {
+        assert path != null;
+        assert path.length( ) > 0;
+
+        String cacheHitRatesFileFullName =  
+            Parameters.outputFilePath + "\\" + fileNamePrefix + CACHE_HIT_RATE_OUTPUT_NAME;
+        
+        // don't want to overwrite existing result files
+        boolean append = true;
+        
+        DecimalFormat rateFormat = new DecimalFormat( "0.0000" );
+        
+        try( PrintWriter out = new PrintWriter( new FileWriter( 
+                new File( cacheHitRatesFileFullName ), append ) ) )
+        {
+            for( int run = 0; run < numberOfRuns; run++ )
+            {
+                for( int iter = 0; iter < iterationsOverRuns[ run ]; iter++ )
+                {
+                    out.println( ( Parameters.problemNumber + 1 ) + " " +
+                                 AlgorithmParameters.FITNESS_CACHE_SIZE + " " +
+                                 ( run + 1 )  + " " + 
+                                 ( iter + 1 ) + " " +
+                                 rateFormat.format( this.fitnessCacheHitRatesOverRuns[ run ][ iter ] ) );
+                }
+            }
+        } 
+        catch( IOException ex ) 
+        {
+            Logger.getLogger(BatchResults.class.getName()).log(Level.SEVERE, null, ex);
+            System.err.println("Can't open " + cacheHitRatesFileFullName );
+        }   
+    }
      
 }   // end class
 
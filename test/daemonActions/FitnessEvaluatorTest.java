@@ -0,0 +1,468 @@
+/*
+ * FitnessEvaluatorTest.java
+ * 18 October 2026
+ */
+
+package daemonActions;
+
+import static org.junit.Assert.*;
+import engine.Attribute;
+import engine.DesignPathRole;
+import engine.Method;
+import engine.Node;
+import engine.NodeLayout;
+import engine.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import myUtils.Utility;
+import org.junit.Test;
+import problem.CLSAction;
+import problem.CLSDatum;
+import problem.ProblemController;
+import softwareDesign.EleganceDesign;
+
+/**
+ * Checks the fitness of random design solution paths from the
+ * FitnessEvaluator, calculated afresh, node by node and from the
+ * fitness cache, against the calculation over the use matrix and
+ * the elegance design it replaced, and that the design fingerprint
+ * ignores the order of the elements and of the classes.
+ *
+ * @author Christopher Simons
+ */
+
+public class FitnessEvaluatorTest
+{
+    private static final int NUMBER_OF_PATHS = 1000;
+
+    private static final int NUMBER_OF_CLASSES = 5;
+
+    private static final long SEED = 2026L;
+
+    @Test
+    public void cinemaBookingSystemMatchesBaseline( )
+    {
+        assertMatchesBaseline( createProblem( 5 ) );
+    }
+
+    @Test
+    public void selectCruisesMatchesBaseline( )
+    {
+        assertMatchesBaseline( createProblem( 6 ) );
+    }
+
+    @Test
+    public void nodeByNodeMatchesWholePath( )
+    {
+        ProblemController problemController = createProblem( 6 );
+        NodeLayout layout = createLayout( problemController );
+        FitnessEvaluator evaluator = new FitnessEvaluator( problemController );
+        Random random = new Random( SEED );
+
+        for( int p = 0; p < NUMBER_OF_PATHS; p++ )
+        {
+            final int[ ] nodes = randomPath( layout, random );
+
+            Path whole = new Path( new DesignPathRole( ), layout, nodes );
+            evaluator.evaluate( whole );
+
+            Path incremental = new Path( new DesignPathRole( ), layout, nodes );
+            evaluator.startPath( );
+
+            for( int k = 0; k < nodes.length; k++ )
+            {
+                evaluator.addNode( nodes[ k ] );
+            }
+
+            evaluator.finishPath( incremental );
+
+            assertSameFitness( whole, incremental );
+        }
+    }
+
+    @Test
+    public void cachedFitnessMatchesCalculatedFitness( )
+    {
+        ProblemController problemController = createProblem( 5 );
+        NodeLayout layout = createLayout( problemController );
+        FitnessCache cache = new FitnessCache( NUMBER_OF_PATHS );
+        FitnessEvaluator cached = new FitnessEvaluator( problemController, cache );
+        FitnessEvaluator uncached = new FitnessEvaluator( problemController );
+        Random random = new Random( SEED );
+
+        for( int p = 0; p < NUMBER_OF_PATHS; p++ )
+        {
+            final int[ ] nodes = randomPath( layout, random );
+
+            Path expected = new Path( new DesignPathRole( ), layout, nodes );
+            uncached.evaluate( expected );
+
+            cache.resetCounts( );
+            Path first = new Path( new DesignPathRole( ), layout, nodes );
+            cached.evaluate( first );
+            assertSameFitness( expected, first );
+
+            // the same design, with its classes and elements reordered
+            Path second = new Path( new DesignPathRole( ), layout, reorder( layout, nodes, random ) );
+            cached.evaluate( second );
+            assertTrue( second.isEvaluated( ) );
+            assertSameFitness( expected, second );
+
+            assertEquals( 2, cache.getLookups( ) );
+            assertTrue( cache.getHitRate( ) >= 0.5 );
+        }
+    }
+
+    @Test
+    public void fingerprintIgnoresOrder( )
+    {
+        ProblemController problemController = createProblem( 6 );
+        NodeLayout layout = createLayout( problemController );
+        DesignFingerprint first = new DesignFingerprint(
+            layout.getNumberOfElements( ), layout.getNumberOfClasses( ) );
+        DesignFingerprint second = new DesignFingerprint(
+            layout.getNumberOfElements( ), layout.getNumberOfClasses( ) );
+        Random random = new Random( SEED );
+
+        for( int p = 0; p < NUMBER_OF_PATHS; p++ )
+        {
+            final int[ ] nodes = randomPath( layout, random );
+            first.set( nodes );
+            second.set( reorder( layout, nodes, random ) );
+
+            assertEquals( first, second );
+            assertEquals( first.hashCode( ), second.hashCode( ) );
+            assertEquals( first, second.copy( ) );
+        }
+    }
+
+    @Test
+    public void fingerprintDistinguishesDesigns( )
+    {
+        ProblemController problemController = createProblem( 5 );
+        NodeLayout layout = createLayout( problemController );
+        DesignFingerprint first = new DesignFingerprint(
+            layout.getNumberOfElements( ), layout.getNumberOfClasses( ) );
+        DesignFingerprint second = new DesignFingerprint(
+            layout.getNumberOfElements( ), layout.getNumberOfClasses( ) );
+        Random random = new Random( SEED );
+
+        for( int p = 0; p < NUMBER_OF_PATHS; p++ )
+        {
+            final int[ ] nodes = randomPath( layout, random );
+            first.set( nodes );
+
+            // move the first element of the first class into the last class,
+            // which leaves the first class empty if it was alone
+            final int[ ] moved = nodes.clone( );
+            final int element = moved[ 1 ];
+            System.arraycopy( moved, 2, moved, 1, moved.length - 3 );
+            moved[ moved.length - 2 ] = element;
+
+            second.set( moved );
+
+            assertFalse( first.equals( second ) );
+        }
+    }
+
+    /**
+     * evaluate random paths afresh and compare with the baseline
+     * @param problem controller
+     */
+    private static void assertMatchesBaseline( ProblemController problemController )
+    {
+        NodeLayout layout = createLayout( problemController );
+        FitnessEvaluator evaluator = new FitnessEvaluator( problemController );
+        Random random = new Random( SEED );
+
+        for( int p = 0; p < NUMBER_OF_PATHS; p++ )
+        {
+            final int[ ] nodes = randomPath( layout, random );
+
+            Path expected = new Path( new DesignPathRole( ), layout, nodes );
+            calculateBaselineFitness( expected, problemController );
+
+            Path actual = new Path( new DesignPathRole( ), layout, nodes );
+            evaluator.evaluate( actual );
+
+            assertSameFitness( expected, actual );
+        }
+    }
+
+    private static void assertSameFitness( Path expected, Path actual )
+    {
+        assertEquals( expected.getCBO( ), actual.getCBO( ), 0.0 );
+        assertEquals( expected.getEleganceNAC( ), actual.getEleganceNAC( ), 0.0 );
+        assertEquals( expected.getEleganceATMR( ), actual.getEleganceATMR( ), 0.0 );
+        assertEquals( expected.getEleganceModularity( ), actual.getEleganceModularity( ), 0.0 );
+    }
+
+    /**
+     * the fitness calculation the evaluator replaced: CBO, NAC and ATMR
+     * class by class over the use matrix, and modularity from the
+     * elegance design constructed from the path
+     * @param path
+     * @param problem controller
+     */
+    private static void calculateBaselineFitness(
+        Path path, ProblemController problemController )
+    {
+        final int[ ][ ] useMatrix = problemController.getUseMatrix( );
+        final int numberOfAttributes = problemController.getNumberOfUniqueData( );
+        final int numberOfMethods = problemController.getNumberOfUniqueActions( );
+        final int numberOfUses = problemController.getNumberOfUses( );
+        final int numberOfClasses = problemController.getNumberOfClasses( );
+
+        int internalUses = 0;
+        int[ ] elementCounts = new int[ numberOfClasses ];
+        double[ ] ratios = new double[ numberOfClasses ];
+        int classCounter = 0;
+
+        List< Integer > classMethods = new ArrayList< >( );
+        List< Integer > classAttributes = new ArrayList< >( );
+
+        final int[ ] nodes = path.getNodeNumbers( );
+
+        for( int k = 0; k < nodes.length; k++ )
+        {
+            final int number = nodes[ k ];
+
+            if( number == 0 )
+            {
+                // do nothing, it's the nest
+            }
+            else if( number <= numberOfAttributes )
+            {
+                classAttributes.add( number - 1 );  // minus one for the nest
+            }
+            else if( number <= numberOfAttributes + numberOfMethods )
+            {
+                classMethods.add( number - numberOfAttributes - 1 );
+            }
+            else
+            {
+                if( classMethods.isEmpty( ) == false && classAttributes.isEmpty( ) == false )
+                {
+                    for( int m : classMethods )
+                    {
+                        for( int a : classAttributes )
+                        {
+                            if( useMatrix[ m ][ a ] == 1 )
+                            {
+                                internalUses++;
+                            }
+                        }
+                    }
+
+                    ratios[ classCounter ] =
+                        (double) classAttributes.size( ) / (double) classMethods.size( );
+                }
+
+                elementCounts[ classCounter ] = classAttributes.size( ) + classMethods.size( );
+                classCounter++;
+
+                classMethods.clear( );
+                classAttributes.clear( );
+            }
+        }
+
+        assertEquals( numberOfClasses, classCounter );
+
+        path.setCBO( 1.0 - ( (double) internalUses / (double) numberOfUses ) );
+        path.setEleganceNAC( Utility.standardDeviation( elementCounts ) );
+        path.setEleganceATMR( Utility.standardDeviation( ratios ) );
+
+        EleganceDesign ed = DaemonOperators.constructDesignFromPath( path );
+        ed.calculateEleganceModularity( problemController.getUseTable( ) );
+        path.setEleganceModularity( ed.getEleganceModularity( ) );
+    }
+
+    /**
+     * @param design problem number, 5 or 6
+     * @return problem controller with its use matrix complete
+     */
+    private static ProblemController createProblem( int problemNumber )
+    {
+        ProblemController problemController = new ProblemController( );
+
+        if( problemNumber == 5 )
+        {
+            problemController.createDesignProblem5( );
+        }
+        else
+        {
+            problemController.createDesignProblem6( );
+        }
+
+        problemController.setNumberOfClasses( NUMBER_OF_CLASSES );
+        problemController.generateUseMatrix( );
+
+        return problemController;
+    }
+
+    /**
+     * @param problem controller
+     * @return node layout, with the lists numbered as in Controller
+     */
+    private static NodeLayout createLayout( ProblemController problemController )
+    {
+        List< Node > amList = new ArrayList< >( );
+        int counter = 0;
+
+        Iterator< CLSDatum > datumIt = problemController.getDatumList( );
+
+        while( datumIt.hasNext( ) )
+        {
+            amList.add( new Attribute( datumIt.next( ).getName( ), counter ) );
+            counter++;
+        }
+
+        Iterator< CLSAction > actionIt = problemController.getActionList( );
+
+        while( actionIt.hasNext( ) )
+        {
+            amList.add( new Method( actionIt.next( ).getName( ), counter ) );
+            counter++;
+        }
+
+        return new NodeLayout(
+            amList, problemController.getNumberOfUniqueData( ),
+            problemController.getNumberOfClasses( ) );
+    }
+
+    /**
+     * a random complete path: the nest, then every attribute and method
+     * in random order, split into classes of at least one element,
+     * each closed by the next end of class marker
+     * @param layout
+     * @param random
+     * @return node numbers of the path
+     */
+    private static int[ ] randomPath( NodeLayout layout, Random random )
+    {
+        final int numberOfElements = layout.getNumberOfElements( );
+        final int numberOfClasses = layout.getNumberOfClasses( );
+
+        int[ ] elements = new int[ numberOfElements ];
+
+        for( int e = 0; e < numberOfElements; e++ )
+        {
+            elements[ e ] = e + 1;  // plus one for the nest
+        }
+
+        shuffle( elements, 0, numberOfElements, random );
+
+        // choose where the classes end, after distinct elements
+        boolean[ ] endsClass = new boolean[ numberOfElements ];
+        endsClass[ numberOfElements - 1 ] = true;
+        int ends = 1;
+
+        while( ends < numberOfClasses )
+        {
+            final int e = random.nextInt( numberOfElements - 1 );
+
+            if( endsClass[ e ] == false )
+            {
+                endsClass[ e ] = true;
+                ends++;
+            }
+        }
+
+        int[ ] nodes = new int[ layout.getPathLength( ) ];
+        nodes[ 0 ] = NodeLayout.NEST;
+        int k = 1;
+        int endOfClass = layout.getFirstEndOfClass( );
+
+        for( int e = 0; e < numberOfElements; e++ )
+        {
+            nodes[ k ] = elements[ e ];
+            k++;
+
+            if( endsClass[ e ] == true )
+            {
+                nodes[ k ] = endOfClass;
+                k++;
+                endOfClass++;
+            }
+        }
+
+        assert k == nodes.length;
+        return nodes;
+    }
+
+    /**
+     * the same design as a path, with the elements of each class
+     * and the classes themselves in random order
+     * @param layout
+     * @param node numbers of the path
+     * @param random
+     * @return node numbers of the reordered path
+     */
+    private static int[ ] reorder( NodeLayout layout, int[ ] nodes, Random random )
+    {
+        // the elements of each class, in turn
+        List< int[ ] > classes = new ArrayList< >( );
+        int start = 1;
+
+        for( int k = 1; k < nodes.length; k++ )
+        {
+            if( layout.isEndOfClass( nodes[ k ] ) == true )
+            {
+                int[ ] elements = new int[ k - start ];
+                System.arraycopy( nodes, start, elements, 0, elements.length );
+                shuffle( elements, 0, elements.length, random );
+                classes.add( elements );
+                start = k + 1;
+            }
+        }
+
+        int[ ] order = new int[ classes.size( ) ];
+
+        for( int c = 0; c < order.length; c++ )
+        {
+            order[ c ] = c;
+        }
+
+        shuffle( order, 0, order.length, random );
+
+        int[ ] result = new int[ nodes.length ];
+        result[ 0 ] = NodeLayout.NEST;
+        int k = 1;
+        int endOfClass = layout.getFirstEndOfClass( );
+
+        for( int c = 0; c < order.length; c++ )
+        {
+            for( int element : classes.get( order[ c ] ) )
+            {
+                result[ k ] = element;
+                k++;
+            }
+
+            result[ k ] = endOfClass;
+            k++;
+            endOfClass++;
+        }
+
+        assert k == result.length;
+        return result;
+    }
+
+    /**
+     * Fisher-Yates shuffle of part of an array
+     */
+    private static void shuffle( int[ ] numbers, int from, int to, Random random )
+    {
+        for( int i = to - 1; i > from; i-- )
+        {
+            final int j = from + random.nextInt( i - from + 1 );
+            final int temp = numbers[ i ];
+            numbers[ i ] = numbers[ j ];
+            numbers[ j ] = temp;
+        }
+    }
+
+}   // end class
+
+//------- end file ----------------------------------------
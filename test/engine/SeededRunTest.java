@@ -0,0 +1,135 @@
+/*
+ * SeededRunTest.java
+ * 18 October 2026
+ */
+
+package engine;
+
+import static org.junit.Assert.*;
+import config.AlgorithmParameters;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import pheromone.PheromoneTable;
+import problem.ProblemController;
+
+/**
+ * Checks that a seeded run is reproducible, and gives the same colonies
+ * whether the ants construct their paths in turn or concurrently.
+ *
+ * @author Christopher Simons
+ */
+
+public class SeededRunTest
+{
+    private static final int ITERATIONS = 20;
+    
+    private int savedIterations;
+    private int savedRuns;
+    private boolean savedSeeded;
+    private long savedSeed;
+    private boolean savedParallel;
+    private int savedThreads;
+    
+    @Before
+    public void setUp( )
+    {
+        savedIterations = AlgorithmParameters.NUMBER_OF_ITERATIONS;
+        savedRuns = AlgorithmParameters.NUMBER_OF_RUNS;
+        savedSeeded = AlgorithmParameters.seeded;
+        savedSeed = AlgorithmParameters.MASTER_SEED;
+        savedParallel = AlgorithmParameters.parallelConstruction;
+        savedThreads = AlgorithmParameters.NUMBER_OF_THREADS;
+        
+        AlgorithmParameters.NUMBER_OF_ITERATIONS = ITERATIONS;
+        AlgorithmParameters.NUMBER_OF_RUNS = 1;
+        AlgorithmParameters.seeded = true;
+        AlgorithmParameters.MASTER_SEED = 42L;
+    }
+    
+    @After
+    public void tearDown( )
+    {
+        AlgorithmParameters.NUMBER_OF_ITERATIONS = savedIterations;
+        AlgorithmParameters.NUMBER_OF_RUNS = savedRuns;
+        AlgorithmParameters.seeded = savedSeeded;
+        AlgorithmParameters.MASTER_SEED = savedSeed;
+        AlgorithmParameters.parallelConstruction = savedParallel;
+        AlgorithmParameters.NUMBER_OF_THREADS = savedThreads;
+    }
+    
+    @Test
+    public void sequentialRunIsReproducible( )
+    {
+        AlgorithmParameters.parallelConstruction = false;
+        
+        assertSamePheromone( runCinemaBookingSystem( ), runCinemaBookingSystem( ) );
+    }
+    
+    @Test
+    public void parallelConstructionGivesTheSequentialColonies( )
+    {
+        AlgorithmParameters.parallelConstruction = false;
+        PheromoneTable sequential = runCinemaBookingSystem( );
+        
+        AlgorithmParameters.parallelConstruction = true;
+        AlgorithmParameters.NUMBER_OF_THREADS = 4;
+        PheromoneTable parallel = runCinemaBookingSystem( );
+        
+        assertSamePheromone( sequential, parallel );
+    }
+    
+    @Test
+    public void anotherSeedGivesOtherColonies( )
+    {
+        AlgorithmParameters.parallelConstruction = false;
+        PheromoneTable first = runCinemaBookingSystem( );
+        
+        AlgorithmParameters.MASTER_SEED = 43L;
+        PheromoneTable second = runCinemaBookingSystem( );
+        
+        assertFalse( samePheromone( first, second ) );
+    }
+    
+    /**
+     * the pheromone at the end of a run depends on the path of every 
+     * ant of every iteration, so equal tables mean equal colonies
+     * @return the pheromone table at the end of a seeded run
+     */
+    private static PheromoneTable runCinemaBookingSystem( )
+    {
+        ProblemController problemController = new ProblemController( );
+        problemController.createDesignProblem5( );
+        problemController.setNumberOfClasses( 5 );
+        problemController.generateUseMatrix( );
+        
+        Controller controller = new Controller( problemController, Controller.Mode.batch );
+        controller.run( 0, null );
+        
+        return controller.getPheromoneTable( );
+    }
+    
+    private static void assertSamePheromone( PheromoneTable expected, PheromoneTable actual )
+    {
+        assertTrue( "the colonies differ", samePheromone( expected, actual ) );
+    }
+    
+    private static boolean samePheromone( PheromoneTable first, PheromoneTable second )
+    {
+        assertEquals( first.size( ), second.size( ) );
+        boolean result = true;
+        
+        for( int x = 0; x < first.size( ) && result == true; x++ )
+        {
+            for( int y = 0; y < first.size( ) && result == true; y++ )
+            {
+                result = first.getProbabilityAt( x, y ) == second.getProbabilityAt( x, y );
+            }
+        }
+        
+        return result;
+    }
+
+}   // end class
+
+//------- end file ----------------------------------------
@@ -0,0 +1,198 @@
+/*
+ * FenwickTreeTest.java
+ * 18 October 2026
+ */
+
+package myUtils;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * Checks FenwickTree selection against a linear "roulette wheel" scan,
+ * as elements are removed, and that selecting by rejection from upper
+ * bounds in the tree gives the roulette wheel distribution.
+ *
+ * @author Christopher Simons
+ */
+
+public class FenwickTreeTest
+{
+    private static final int SIZE = 37;
+    
+    /**
+     * the linear scan of the roulette wheel, as in Ant
+     * @param weights
+     * @param value between zero and the total
+     * @return index at which the running total first reaches the value
+     */
+    private static int linearScan( double[ ] weights, double value )
+    {
+        double runningTotal = 0.0;
+        int result = weights.length - 1;
+        
+        for( int i = 0; i < weights.length; i++ )
+        {
+            runningTotal += weights[ i ];
+            
+            if( runningTotal >= value )
+            {
+                result = i;
+                break;
+            }
+        }
+        
+        return result;
+    }
+    
+    /**
+     * @param random stream
+     * @return whole number weights, so that sums are exact, some zero
+     */
+    private static double[ ] randomWeights( RandomStream random )
+    {
+        double[ ] weights = new double[ SIZE ];
+        
+        for( int i = 0; i < SIZE; i++ )
+        {
+            weights[ i ] = Math.floor( random.nextDouble( ) * 10.0 );
+        }
+        
+        return weights;
+    }
+    
+    @Test
+    public void findMatchesLinearScanAsElementsAreRemoved( )
+    {
+        RandomStream random = new RandomStream( 5L );
+        
+        for( int trial = 0; trial < 50; trial++ )
+        {
+            double[ ] weights = randomWeights( random );
+            FenwickTree tree = new FenwickTree( SIZE );
+            tree.fill( weights, SIZE );
+            
+            for( int removals = 0; removals < SIZE; removals++ )
+            {
+                double total = 0.0;
+                
+                for( double w : weights )
+                {
+                    total += w;
+                }
+                
+                assertEquals( total, tree.getTotal( ), 0.0 );
+                
+                // every boundary of the wheel, and values in between
+                for( int k = 0; k <= 4 * (int) total; k++ )
+                {
+                    final double value = k / 4.0;
+                    final int found = tree.find( value );
+                    
+                    assertEquals( "value " + value, linearScan( weights, value ), found );
+                    
+                    if( value > 0.0 )
+                    {
+                        assertTrue( "removed element found", weights[ found ] > 0.0 );
+                    }
+                }
+                
+                final int index = (int) ( random.nextDouble( ) * SIZE );
+                tree.remove( index );
+                weights[ index ] = 0.0;
+                assertEquals( 0.0, tree.getWeight( index ), 0.0 );
+            }
+        }
+    }
+    
+    @Test
+    public void findStaysInRangeWhenTheSumsHaveDrifted( )
+    {
+        // tenths are not exact in binary, so removal leaves the partial
+        // sums slightly out from the remaining weights
+        double[ ] weights = new double[ SIZE ];
+        
+        for( int i = 0; i < SIZE; i++ )
+        {
+            weights[ i ] = 0.1 * ( i + 1 );
+        }
+        
+        FenwickTree tree = new FenwickTree( SIZE );
+        tree.fill( weights, SIZE );
+        
+        for( int i = 0; i < SIZE - 1; i++ )
+        {
+            tree.remove( i );
+        }
+        
+        // a spin at, or just beyond, the drifted total
+        final double total = tree.getTotal( );
+        assertEquals( weights[ SIZE - 1 ], total, 1.0e-12 );
+        
+        assertEquals( SIZE - 1, tree.find( total ) );
+        assertEquals( SIZE - 1, tree.find( weights[ SIZE - 1 ] ) );
+        assertEquals( SIZE - 1, tree.find( total * ( 1.0 + 1.0e-9 ) ) );
+        
+        // and with every weight removed
+        tree.remove( SIZE - 1 );
+        assertEquals( SIZE - 1, tree.find( 1.0 ) );
+    }
+    
+    @Test
+    public void rejectionFromUpperBoundsGivesRouletteWheelDistribution( )
+    {
+        RandomStream random = new RandomStream( 11L );
+        
+        final double[ ] weights = { 0.5, 3.0, 0.0, 1.25, 2.0, 0.25, 4.0, 1.0 };
+        final double[ ] bounds = { 1.0, 3.0, 2.0, 4.0, 2.5, 0.5, 4.0, 3.0 };
+        final int n = weights.length;
+        
+        FenwickTree tree = new FenwickTree( n );
+        tree.fill( bounds, n );
+        
+        // remove one, as if already selected
+        tree.remove( 4 );
+        weights[ 4 ] = 0.0;
+        
+        double sum = 0.0;
+        
+        for( double w : weights )
+        {
+            sum += w;
+        }
+        
+        final int draws = 400000;
+        int[ ] counts = new int[ n ];
+        
+        for( int d = 0; d < draws; d++ )
+        {
+            int selected = -1;
+            
+            while( selected < 0 )
+            {
+                final int candidate = tree.find( random.nextDouble( ) * tree.getTotal( ) );
+                final double bound = tree.getWeight( candidate );
+                
+                if( bound > 0.0 && random.nextDouble( ) * bound < weights[ candidate ] )
+                {
+                    selected = candidate;
+                }
+            }
+            
+            counts[ selected ]++;
+        }
+        
+        for( int i = 0; i < n; i++ )
+        {
+            final double expected = weights[ i ] / sum;
+            final double observed = (double) counts[ i ] / draws;
+            
+            // well within five standard errors
+            final double tolerance = 5.0 * Math.sqrt( expected * ( 1.0 - expected ) / draws ) + 1.0e-9;
+            assertEquals( "element " + i, expected, observed, tolerance );
+        }
+    }
+
+}   // end class
+
+//------- end file ----------------------------------------
@@ -0,0 +1,97 @@
+/*
+ * RandomStreamTest.java
+ * 18 October 2026
+ */
+
+package myUtils;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * Checks RandomStream against the published output of SplitMix64, and
+ * that child streams depend only on the seed and the key.
+ *
+ * @author Christopher Simons
+ */
+
+public class RandomStreamTest
+{
+    /** the first outputs of SplitMix64 seeded with zero */
+    private static final long[ ] SPLITMIX64_SEED_ZERO = 
+    { 
+        0xe220a8397b1dcdafL, 
+        0x6e789e6aa1b965f4L, 
+        0x06c45d188009454fL, 
+        0xf88bb8a8724c81ecL 
+    };
+    
+    @Test
+    public void nextLongMatchesSplitMix64( )
+    {
+        RandomStream stream = new RandomStream( 0L );
+        
+        for( int i = 0; i < SPLITMIX64_SEED_ZERO.length; i++ )
+        {
+            assertEquals( SPLITMIX64_SEED_ZERO[ i ], stream.nextLong( ) );
+        }
+    }
+    
+    @Test
+    public void deriveMixesTheSeedWithTheFirstOutputForTheKey( )
+    {
+        // the key is mixed as the first output of SplitMix64 seeded with
+        // the key, then added to the seed and mixed again in the same way
+        final long seed = 42L;
+        final long key = 0L;
+        
+        final long mixedKey = SPLITMIX64_SEED_ZERO[ 0 ];
+        final long expected = new RandomStream( seed + mixedKey - 0x9e3779b97f4a7c15L ).nextLong( );
+        
+        assertEquals( expected, new RandomStream( seed ).derive( key ).getSeed( ) );
+    }
+    
+    @Test
+    public void deriveIgnoresTheStateOfTheParent( )
+    {
+        RandomStream fresh = new RandomStream( 7L );
+        RandomStream used = new RandomStream( 7L );
+        
+        for( int i = 0; i < 1000; i++ )
+        {
+            used.nextLong( );
+        }
+        
+        RandomStream a = fresh.derive( 12 ).derive( 3 );
+        RandomStream b = used.derive( 12 ).derive( 3 );
+        
+        for( int i = 0; i < 100; i++ )
+        {
+            assertEquals( a.nextLong( ), b.nextLong( ) );
+        }
+    }
+    
+    @Test
+    public void childrenOfDifferentKeysDiffer( )
+    {
+        RandomStream parent = new RandomStream( 7L );
+        
+        assertNotEquals( parent.derive( 0 ).nextLong( ), parent.derive( 1 ).nextLong( ) );
+        assertNotEquals( parent.derive( 1 ).getSeed( ), parent.getSeed( ) );
+    }
+    
+    @Test
+    public void nextDoubleIsInTheUnitInterval( )
+    {
+        RandomStream stream = new RandomStream( 1L );
+        
+        for( int i = 0; i < 100000; i++ )
+        {
+            final double d = stream.nextDouble( );
+            assertTrue( d >= 0.0 && d < 1.0 );
+        }
+    }
+
+}   // end class
+
+//------- end file ----------------------------------------